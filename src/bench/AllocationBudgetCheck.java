@@ -0,0 +1,53 @@
+package bench;
+
+import java.util.Random;
+import sim.AllocationMeter;
+import sim.SimulationEngine;
+import sim.StopCondition;
+import world.World;
+import world.WorldConfig;
+
+/**
+ * Portão de regressão de alocações: corre um cenário de semente fixa e falha (código de saída 1)
+ * se os bytes alocados por organismo e por passo passarem o orçamento.
+ * Argumentos opcionais: orçamento (bytes/organismo/passo), tamanho do mundo e nº de passos.
+ */
+public final class AllocationBudgetCheck {
+
+    /** Orçamento por omissão, com folga sobre o valor medido no motor de referência. */
+    private static final double DEFAULT_BUDGET = 40.0;
+    private static final long SEED = 42L;
+    private static final int WARMUP_STEPS = 50;
+
+    private AllocationBudgetCheck() {}
+
+    public static void main(String[] args) {
+        double budget = args.length > 0 ? Double.parseDouble(args[0]) : DEFAULT_BUDGET;
+        int size = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int steps = args.length > 2 ? Integer.parseInt(args[2]) : 300;
+
+        if (!AllocationMeter.isSupported()) {
+            System.out.println("skip: JVM sem contadores de alocação por thread");
+            return;
+        }
+
+        Random rng = new Random(SEED);
+        World world = World.fromConfig(new WorldConfig(size, size, 0.04, 0.12, 0.30), rng);
+        SimulationEngine engine = new SimulationEngine(world, rng);
+        AllocationMeter meter = engine.enableAllocationMeter();
+
+        // aquecimento (JIT, crescimento das estruturas) fora da medição
+        engine.stepN(WARMUP_STEPS, StopCondition.NEVER);
+        meter.reset();
+        int ran = engine.stepN(steps, StopCondition.NEVER);
+
+        double perOrganism = meter.getBytesPerOrganismStep();
+        System.out.println("alloc " + meter.toTextLine());
+        System.out.printf("budget bytesPerOrganismStep=%.1f limit=%.1f steps=%d%n", perOrganism, budget, ran);
+        if (perOrganism > budget) {
+            System.out.println("FAIL: orçamento de alocações excedido");
+            System.exit(1);
+        }
+        System.out.println("OK");
+    }
+}
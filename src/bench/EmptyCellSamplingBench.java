@@ -0,0 +1,88 @@
+package bench;
+
+import java.util.Random;
+import model.Position;
+import world.World;
+import world.WorldConfig;
+
+/**
+ * Sorteio de uma célula vazia uniforme, a operação da imigração: índice de células vazias de
+ * {@link World} (O(1)) vs. sondar células ao acaso até acertar numa vazia (custo ~ 1 / fração livre)
+ * vs. percorrer a grelha a recolher as vazias (O(células)), a várias ocupações.
+ * Argumentos opcionais: lado da grelha (por omissão 1000) e nº de sorteios por medição.
+ */
+public final class EmptyCellSamplingBench {
+
+    private static final double[] OCCUPANCY = {0.50, 0.90, 0.99, 0.999};
+
+    private static long sink;
+
+    private EmptyCellSamplingBench() {}
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int draws = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        int scanDraws = Math.max(1, draws / 10_000);
+
+        System.out.println("occupancy,emptyCells,indexNsPerDraw,probeNsPerDraw,scanNsPerDraw");
+        for (double occ : OCCUPANCY) {
+            World world = World.fromConfig(new WorldConfig(size, size, 0.0, 0.0, occ), new Random(42));
+            world.enableEmptyCellIndex();
+            int empty = world.getEmptyCellCount();
+
+            // aquecimento (JIT) antes de medir
+            runIndex(world, draws);
+            runProbe(world, draws);
+            runScan(world, scanDraws);
+
+            double idx = Math.min(runIndex(world, draws), runIndex(world, draws));
+            double probe = Math.min(runProbe(world, draws), runProbe(world, draws));
+            double scan = runScan(world, scanDraws);
+            System.out.printf("%.3f,%d,%.1f,%.1f,%.0f%n", occ, empty, idx, probe, scan);
+        }
+        if (sink == 42) System.out.println();
+    }
+
+    private static double runIndex(World world, int draws) {
+        Random rng = new Random(7);
+        long t0 = System.nanoTime();
+        for (int i = 0; i < draws; i++) {
+            Position p = world.randomEmptyCell(rng);
+            if (p != null) sink += p.x();
+        }
+        return (System.nanoTime() - t0) / (double) draws;
+    }
+
+    private static double runProbe(World world, int draws) {
+        Random rng = new Random(7);
+        int w = world.getWidth();
+        int h = world.getHeight();
+        long t0 = System.nanoTime();
+        for (int i = 0; i < draws; i++) {
+            Position p;
+            do {
+                p = new Position(rng.nextInt(w), rng.nextInt(h));
+            } while (world.getAt(p) != null);
+            sink += p.x();
+        }
+        return (System.nanoTime() - t0) / (double) draws;
+    }
+
+    private static double runScan(World world, int draws) {
+        Random rng = new Random(7);
+        int w = world.getWidth();
+        int h = world.getHeight();
+        int[] free = new int[w * h];
+        long t0 = System.nanoTime();
+        for (int i = 0; i < draws; i++) {
+            int n = 0;
+            for (int y = 0; y < h; y++) {
+                for (int x = 0; x < w; x++) {
+                    if (world.getAt(new Position(x, y)) == null) free[n++] = y * w + x;
+                }
+            }
+            if (n > 0) sink += free[rng.nextInt(n)];
+        }
+        return (System.nanoTime() - t0) / (double) draws;
+    }
+}
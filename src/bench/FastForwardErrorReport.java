@@ -0,0 +1,97 @@
+package bench;
+
+import java.util.Locale;
+import java.util.Random;
+import model.Species;
+import sim.MeanFieldFastForward;
+import sim.SimulationEngine;
+import sim.StopCondition;
+import world.World;
+import world.WorldConfig;
+
+/**
+ * Erro do modo híbrido (agentes + salto de campo médio) face a corridas só por agentes com as
+ * mesmas sementes: populações médias logo a seguir ao salto e no fim, e tempo de cada variante.
+ * Argumentos opcionais: sementes, tamanho, passos antes do salto, passos saltados, passos depois e
+ * janela de ajuste. Por omissão o salto cai no transiente em que as três espécies ainda coexistem.
+ */
+public final class FastForwardErrorReport {
+
+    private static final Species[] SPECIES = Species.values();
+
+    private FastForwardErrorReport() {}
+
+    public static void main(String[] args) {
+        int seeds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int size = args.length > 1 ? Integer.parseInt(args[1]) : 300;
+        int warm = args.length > 2 ? Integer.parseInt(args[2]) : 25;
+        int skip = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        int after = args.length > 4 ? Integer.parseInt(args[4]) : 10;
+        int window = args.length > 5 ? Integer.parseInt(args[5]) : Math.min(warm, MeanFieldFastForward.DEFAULT_WINDOW);
+        WorldConfig cfg = new WorldConfig(size, size, 0.04, 0.12, 0.30);
+
+        double[][] pureMid = new double[seeds][], pureEnd = new double[seeds][];
+        double[][] hybMid = new double[seeds][], hybEnd = new double[seeds][];
+        long pureNanos = 0, hybNanos = 0;
+
+        System.out.println("seed,variant,checkpoint,plants,sheep,wolves");
+        for (int s = 0; s < seeds; s++) {
+            long t0 = System.nanoTime();
+            Random rng = new Random(s);
+            SimulationEngine pure = new SimulationEngine(World.fromConfig(cfg, rng), rng);
+            pure.stepN(warm + skip, StopCondition.NEVER);
+            pureMid[s] = populations(pure.getWorld());
+            pure.stepN(after, StopCondition.NEVER);
+            pureEnd[s] = populations(pure.getWorld());
+            pureNanos += System.nanoTime() - t0;
+
+            t0 = System.nanoTime();
+            rng = new Random(s);
+            SimulationEngine hybrid = new SimulationEngine(World.fromConfig(cfg, rng), rng);
+            MeanFieldFastForward ff = new MeanFieldFastForward(hybrid, window, new Random(~s));
+            hybrid.stepN(warm, StopCondition.NEVER);
+            ff.fastForward(skip);
+            hybMid[s] = populations(hybrid.getWorld());
+            hybrid.stepN(after, StopCondition.NEVER);
+            hybEnd[s] = populations(hybrid.getWorld());
+            hybNanos += System.nanoTime() - t0;
+
+            print(s, "agents", "mid", pureMid[s]);
+            print(s, "agents", "end", pureEnd[s]);
+            print(s, "hybrid", "mid", hybMid[s]);
+            print(s, "hybrid", "end", hybEnd[s]);
+        }
+
+        System.out.println();
+        System.out.println("checkpoint,species,agentsMean,hybridMean,relError");
+        summary("mid", pureMid, hybMid);
+        summary("end", pureEnd, hybEnd);
+        System.out.printf(Locale.ROOT, "time agentsMs=%.1f hybridMs=%.1f speedup=%.2f%n",
+                pureNanos / 1e6, hybNanos / 1e6, (double) pureNanos / Math.max(1, hybNanos));
+    }
+
+    private static double[] populations(World world) {
+        double[] p = new double[SPECIES.length];
+        for (Species sp : SPECIES) p[sp.ordinal()] = world.getPopulation(sp);
+        return p;
+    }
+
+    private static void print(int seed, String variant, String checkpoint, double[] p) {
+        System.out.printf(Locale.ROOT, "%d,%s,%s,%.0f,%.0f,%.0f%n", seed, variant, checkpoint, p[0], p[1], p[2]);
+    }
+
+    /** Erro relativo das médias entre sementes (as trajetórias individuais divergem de qualquer forma). */
+    private static void summary(String checkpoint, double[][] pure, double[][] hybrid) {
+        for (Species sp : SPECIES) {
+            double a = 0, h = 0;
+            for (int s = 0; s < pure.length; s++) {
+                a += pure[s][sp.ordinal()];
+                h += hybrid[s][sp.ordinal()];
+            }
+            a /= pure.length;
+            h /= pure.length;
+            double err = a == 0 ? (h == 0 ? 0 : Double.POSITIVE_INFINITY) : Math.abs(h - a) / a;
+            System.out.printf(Locale.ROOT, "%s,%s,%.1f,%.1f,%.3f%n", checkpoint, sp, a, h, err);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Random;
+import model.Organism;
+import model.Position;
+import rng.Permutations;
+import world.World;
+import world.WorldConfig;
+
+/**
+ * Sondagem "vizinho livre ao acaso" (a operação quente da reprodução e do movimento) com a grelha
+ * plana com moldura de {@link World} vs. a grelha {@code Organism[y][x]} com testes de borda e listas
+ * intermédias que existia antes, sobre a mesma ocupação, em grelhas pequenas e grandes.
+ * Argumento opcional: nº de sondagens por medição.
+ */
+public final class GridLayoutBench {
+
+    private static long sink;
+
+    private GridLayoutBench() {}
+
+    public static void main(String[] args) {
+        int probes = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int[] sizes = {32, 256, 2048};
+
+        System.out.println("size,jaggedNsPerProbe,flatNsPerProbe,speedup");
+        for (int size : sizes) {
+            World world = World.fromConfig(new WorldConfig(size, size, 0.04, 0.12, 0.50), new Random(42));
+            JaggedGrid jagged = new JaggedGrid(world);
+            List<Organism> all = world.getOrganismsView();
+            Position[] centers = new Position[probes];
+            Random pick = new Random(1);
+            for (int i = 0; i < probes; i++) centers[i] = all.get(pick.nextInt(all.size())).getPosition();
+
+            // aquecimento (JIT) antes de medir
+            runJagged(jagged, centers);
+            runFlat(world, centers);
+
+            double j = Math.min(runJagged(jagged, centers), runJagged(jagged, centers));
+            double f = Math.min(runFlat(world, centers), runFlat(world, centers));
+            System.out.printf(Locale.ROOT, "%d,%.1f,%.1f,%.2f%n", size, j, f, j / f);
+        }
+        if (sink == 42) System.out.println();
+    }
+
+    private static double runFlat(World world, Position[] centers) {
+        Random rng = new Random(7);
+        long t0 = System.nanoTime();
+        for (Position c : centers) {
+            Position p = world.randomAdjacent(c, rng, Objects::isNull);
+            if (p != null) sink += p.x();
+        }
+        return (System.nanoTime() - t0) / (double) centers.length;
+    }
+
+    private static double runJagged(JaggedGrid grid, Position[] centers) {
+        Random rng = new Random(7);
+        long t0 = System.nanoTime();
+        for (Position c : centers) {
+            Position p = grid.randomEmptyAdjacent(c, rng);
+            if (p != null) sink += p.x();
+        }
+        return (System.nanoTime() - t0) / (double) centers.length;
+    }
+
+    /** A disposição anterior: array de linhas, {@code isInside} em cada acesso, vizinhos numa lista. */
+    private static final class JaggedGrid {
+        private final int width;
+        private final int height;
+        private final Organism[][] grid;
+
+        JaggedGrid(World world) {
+            width = world.getWidth();
+            height = world.getHeight();
+            grid = new Organism[height][width];
+            for (Organism o : world.getOrganismsView()) grid[o.getPosition().y()][o.getPosition().x()] = o;
+        }
+
+        boolean isInside(Position p) {
+            return p != null && p.x() >= 0 && p.x() < width && p.y() >= 0 && p.y() < height;
+        }
+
+        Organism getAt(Position p) {
+            if (!isInside(p)) return null;
+            return grid[p.y()][p.x()];
+        }
+
+        List<Position> getAdjacent4(Position p) {
+            if (!isInside(p)) return List.of();
+            List<Position> res = new ArrayList<>(4);
+            Position n = p.translate(0, -1);
+            Position s = p.translate(0, 1);
+            Position e = p.translate(1, 0);
+            Position w = p.translate(-1, 0);
+            if (isInside(n)) res.add(n);
+            if (isInside(s)) res.add(s);
+            if (isInside(e)) res.add(e);
+            if (isInside(w)) res.add(w);
+            return res;
+        }
+
+        Position randomEmptyAdjacent(Position center, Random rng) {
+            List<Position> adj = new ArrayList<>(getAdjacent4(center));
+            Permutations.shuffle(adj, rng);
+            for (Position p : adj) {
+                if (getAt(p) == null) return p;
+            }
+            return null;
+        }
+    }
+}
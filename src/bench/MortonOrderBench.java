@@ -0,0 +1,45 @@
+package bench;
+
+import java.util.Random;
+import sim.SimulationEngine;
+import sim.StopCondition;
+import world.World;
+import world.WorldConfig;
+
+/**
+ * Tempo por passo com a iteração pela ordem de inserção vs. reordenada pela ordem Morton.
+ * O aquecimento baralha a lista (nascimentos acrescentados ao fim) antes de medir.
+ * Argumentos opcionais: modo (insertion, morton ou both), lado, passos de aquecimento, passos medidos
+ * e intervalo de reordenação. Para contadores de cache corre-se um modo de cada vez sob perf, ex.:
+ * {@code perf stat -e cache-references,cache-misses,L1-dcache-load-misses java -cp bin bench.MortonOrderBench morton 4096}.
+ * O mundo por omissão só tem plantas: com animais, as remoções O(n) da lista dominam o tempo.
+ */
+public final class MortonOrderBench {
+
+    private MortonOrderBench() {}
+
+    public static void main(String[] args) {
+        String mode = args.length > 0 ? args[0] : "both";
+        int size = args.length > 1 ? Integer.parseInt(args[1]) : 4096;
+        int warm = args.length > 2 ? Integer.parseInt(args[2]) : 40;
+        int steps = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+        int interval = args.length > 4 ? Integer.parseInt(args[4]) : 10;
+
+        System.out.println("mode,size,steps,msPerStep,organisms");
+        if (!mode.equals("morton")) run("insertion", size, warm, steps, 0);
+        if (!mode.equals("insertion")) run("morton", size, warm, steps, interval);
+    }
+
+    private static void run(String label, int size, int warm, int steps, int interval) {
+        Random rng = new Random(42);
+        World world = World.fromConfig(new WorldConfig(size, size, 0.0, 0.0, 0.30), rng);
+        SimulationEngine engine = new SimulationEngine(world, rng);
+        engine.stepN(warm, StopCondition.NEVER);
+
+        engine.setReorderInterval(interval);
+        long t0 = System.nanoTime();
+        engine.stepN(steps, StopCondition.NEVER);
+        double ms = (System.nanoTime() - t0) / 1e6 / steps;
+        System.out.printf("%s,%d,%d,%.2f,%d%n", label, size, steps, ms, world.getOrganismsView().size());
+    }
+}
@@ -0,0 +1,68 @@
+package bench;
+
+import java.util.Locale;
+import java.util.Random;
+import model.Species;
+import sim.PhaseSchedule;
+import sim.SimulationEngine;
+import sim.SpeciesTable;
+import world.World;
+import world.WorldConfig;
+
+/**
+ * Deriva do motor multi-ritmo (plantas em lote a cada k passos) face ao motor exato: para várias
+ * sementes corre os dois a partir do mesmo mundo e compara as médias das populações em pontos de
+ * controlo, mais o tempo de cada um. Argumentos opcionais: período k, sementes, lado, passos.
+ */
+public final class MultiRateDriftReport {
+
+    private static final Species[] SPECIES = Species.values();
+    private static final int CHECKPOINTS = 6;
+
+    private MultiRateDriftReport() {}
+
+    public static void main(String[] args) {
+        int period = args.length > 0 ? Integer.parseInt(args[0]) : PhaseSchedule.DEFAULT_SLOW_PERIOD;
+        int seeds = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int size = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        int steps = args.length > 3 ? Integer.parseInt(args[3]) : 300;
+        WorldConfig cfg = new WorldConfig(size, size, 0.04, 0.12, 0.30);
+        int every = Math.max(1, steps / CHECKPOINTS);
+
+        // [checkpoint][espécie], somado entre sementes
+        double[][] exact = new double[CHECKPOINTS + 1][SPECIES.length];
+        double[][] approx = new double[CHECKPOINTS + 1][SPECIES.length];
+        long exactNanos = 0, approxNanos = 0;
+
+        for (int s = 0; s < seeds; s++) {
+            exactNanos += run(cfg, s, PhaseSchedule.exact(), steps, every, exact);
+            approxNanos += run(cfg, s, PhaseSchedule.multiRate(period), steps, every, approx);
+        }
+
+        System.out.println("step,species,exactMean,multiRateMean,relDrift");
+        for (int c = 0; c <= CHECKPOINTS; c++) {
+            for (Species sp : SPECIES) {
+                double e = exact[c][sp.ordinal()] / seeds;
+                double a = approx[c][sp.ordinal()] / seeds;
+                double drift = e == 0 ? (a == 0 ? 0 : Double.POSITIVE_INFINITY) : (a - e) / e;
+                System.out.printf(Locale.ROOT, "%d,%s,%.1f,%.1f,%+.4f%n", c * every, sp, e, a, drift);
+            }
+        }
+        System.out.printf(Locale.ROOT, "time period=%d exactMs=%.1f multiRateMs=%.1f speedup=%.2f%n",
+                period, exactNanos / 1e6, approxNanos / 1e6, (double) exactNanos / Math.max(1, approxNanos));
+    }
+
+    private static long run(WorldConfig cfg, int seed, PhaseSchedule schedule, int steps, int every, double[][] acc) {
+        Random rng = new Random(seed);
+        World world = World.fromConfig(cfg, rng);
+        SimulationEngine engine = new SimulationEngine(world, rng, SpeciesTable.standard(), schedule);
+        long t0 = System.nanoTime();
+        for (int c = 0; c <= CHECKPOINTS; c++) {
+            if (c > 0) {
+                for (int i = 0; i < every; i++) engine.step();
+            }
+            for (Species sp : SPECIES) acc[c][sp.ordinal()] += world.getPopulation(sp);
+        }
+        return System.nanoTime() - t0;
+    }
+}
@@ -0,0 +1,98 @@
+package bench;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Random;
+import sim.AllocationMeter;
+import sim.SimulationEngine;
+import sim.StopCondition;
+import world.OrganismPool;
+import world.World;
+import world.WorldConfig;
+
+/**
+ * Reciclagem de organismos ({@link OrganismPool}) vs. {@code new} a cada nascimento, no cenário de
+ * maior rotação: um mundo grande cheio de plantas (idade máxima 20, 10% de reprodução), com algumas
+ * ovelhas. Para cada modo, a mesma semente e os mesmos passos: ms por passo, bytes alocados por
+ * organismo e passo, e recolhas da geração jovem (nº, por 1000 passos e tempo).
+ * Argumentos opcionais: lado do mundo (por omissão 1000), passos medidos e passos de aquecimento.
+ * Correr com um heap fixo (ex. -Xmx2g -Xmn256m) para que os dois modos vejam o mesmo eden.
+ */
+public final class OrganismPoolBench {
+
+    private static final long SEED = 42L;
+
+    private OrganismPoolBench() {}
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int steps = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int warm = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+
+        System.out.println("mode,size,steps,msPerStep,bytesPerOrganismStep,youngGcCount,youngGcPer1000Steps,youngGcMs,reuseRatio");
+        for (String mode : new String[] {"new", "pool", "new", "pool"}) {
+            Random rng = new Random(SEED);
+            World world = World.fromConfig(new WorldConfig(size, size, 0.0, 0.01, 0.40), rng);
+            OrganismPool pool = null;
+            if (mode.equals("pool")) {
+                pool = new OrganismPool();
+                world.enableRecycling(pool);
+            }
+            SimulationEngine engine = new SimulationEngine(world, rng);
+            engine.stepN(warm, StopCondition.NEVER);
+
+            AllocationMeter meter = AllocationMeter.isSupported() ? engine.enableAllocationMeter() : null;
+            System.gc();   // não herdar lixo do aquecimento nem do modo anterior
+            long count0 = youngCount();
+            long ms0 = youngMillis();
+            long t0 = System.nanoTime();
+            engine.stepN(steps, StopCondition.NEVER);
+            double ms = (System.nanoTime() - t0) / 1e6;
+            long count = youngCount() - count0;
+
+            double reuse = 0.0;
+            if (pool != null && pool.getReused() + pool.getAllocated() > 0) {
+                reuse = pool.getReused() / (double) (pool.getReused() + pool.getAllocated());
+            }
+            System.out.printf(Locale.ROOT, "%s,%d,%d,%.2f,%.1f,%d,%.1f,%d,%.3f%n",
+                    mode, size, steps, ms / steps,
+                    meter == null ? Double.NaN : meter.getBytesPerOrganismStep(),
+                    count, count * 1000.0 / steps, youngMillis() - ms0, reuse);
+        }
+    }
+
+    /** Coletores da geração jovem (G1, Parallel, Serial); sem nenhum reconhecido, todos contam. */
+    private static boolean isYoung(GarbageCollectorMXBean gc) {
+        String n = gc.getName();
+        return n.contains("Young") || n.contains("Scavenge") || n.equals("Copy") || n.equals("ParNew");
+    }
+
+    private static long youngCount() {
+        long c = 0;
+        boolean any = false;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (isYoung(gc)) {
+                any = true;
+                c += Math.max(0, gc.getCollectionCount());
+            }
+        }
+        if (any) return c;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) c += Math.max(0, gc.getCollectionCount());
+        return c;
+    }
+
+    private static long youngMillis() {
+        long t = 0;
+        boolean any = false;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (isYoung(gc)) {
+                any = true;
+                t += Math.max(0, gc.getCollectionTime());
+            }
+        }
+        if (any) return t;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) t += Math.max(0, gc.getCollectionTime());
+        return t;
+    }
+}
@@ -0,0 +1,104 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.random.RandomGenerator;
+import rng.Permutations;
+import rng.RandomStreams;
+import sim.SimulationEngine;
+import sim.StopCondition;
+import world.World;
+import world.WorldConfig;
+
+/**
+ * Sorteios por segundo por tipo de uso no motor, para cada gerador: inicialização (um double por
+ * célula), roll() da reprodução, baralho de 4 vizinhos do movimento e escolha do vencedor de um
+ * encontro (nextInt com limite); no fim, organismos atualizados por segundo pelo motor completo com
+ * esse gerador (a dinâmica muda com o gerador, daí não se comparar passos por segundo).
+ * Argumento opcional: milhões de sorteios por medição.
+ */
+public final class RandomDrawBench {
+
+    private static final String[] GENERATORS = {
+            RandomStreams.LEGACY, "SplittableRandom", "L64X128MixRandom", "Xoshiro256PlusPlus",
+            "buffered:SplittableRandom", "buffered:L64X128MixRandom"};
+
+    private static long sink;
+
+    private RandomDrawBench() {}
+
+    public static void main(String[] args) {
+        int draws = (args.length > 0 ? Integer.parseInt(args[0]) : 20) * 1_000_000;
+
+        System.out.println("generator,initMDrawsPerSec,rollMDrawsPerSec,shuffleMDrawsPerSec,pickMDrawsPerSec,engineMUpdatesPerSec");
+        for (String name : GENERATORS) {
+            // aquecimento (JIT) antes de medir
+            measureAll(RandomStreams.create(name, 1), draws / 10);
+            double[] r = measureAll(RandomStreams.create(name, 1), draws);
+            System.out.printf("%s,%.1f,%.1f,%.1f,%.1f,%.1f%n", name, r[0], r[1], r[2], r[3], engineUpdates(name));
+        }
+        if (sink == 42) System.out.println();
+    }
+
+    private static double[] measureAll(RandomGenerator g, int draws) {
+        return new double[] {init(g, draws), roll(g, draws), shuffle(g, draws), pick(g, draws)};
+    }
+
+    private static double init(RandomGenerator g, int draws) {
+        long t0 = System.nanoTime();
+        int hits = 0;
+        for (int i = 0; i < draws; i++) {
+            if (g.nextDouble() < 0.9) hits++;
+        }
+        sink += hits;
+        return rate(draws, t0);
+    }
+
+    private static double roll(RandomGenerator g, int draws) {
+        long t0 = System.nanoTime();
+        int hits = 0;
+        for (int i = 0; i < draws; i++) {
+            if (g.nextDouble() < 0.10) hits++;
+        }
+        sink += hits;
+        return rate(draws, t0);
+    }
+
+    private static double shuffle(RandomGenerator g, int draws) {
+        List<Integer> list = new ArrayList<>(List.of(0, 1, 2, 3));
+        int shuffles = draws / 3;   // 3 sorteios por baralho de 4
+        long t0 = System.nanoTime();
+        for (int i = 0; i < shuffles; i++) {
+            Permutations.shuffle(list, g);
+            sink += list.get(0);
+        }
+        return rate(shuffles * 3L, t0);
+    }
+
+    private static double pick(RandomGenerator g, int draws) {
+        long t0 = System.nanoTime();
+        long acc = 0;
+        for (int i = 0; i < draws; i++) acc += g.nextInt(2 + (i & 3));
+        sink += acc;
+        return rate(draws, t0);
+    }
+
+    private static double rate(long draws, long t0) {
+        return draws / ((System.nanoTime() - t0) / 1e3);   // milhões por segundo
+    }
+
+    private static double engineUpdates(String name) {
+        RandomGenerator rng = RandomStreams.create(name, 7);
+        World world = World.fromConfig(new WorldConfig(200, 200, 0.04, 0.12, 0.30), new Random(7));
+        SimulationEngine engine = new SimulationEngine(world, rng);
+        engine.stepN(30, StopCondition.NEVER);
+        long updates = 0;
+        long t0 = System.nanoTime();
+        for (int i = 0; i < 200; i++) {
+            updates += world.getOrganismsView().size();
+            engine.step();
+        }
+        return updates / ((System.nanoTime() - t0) / 1e3);
+    }
+}
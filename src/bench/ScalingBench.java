@@ -0,0 +1,229 @@
+package bench;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import sim.SimulationEngine;
+import world.World;
+import world.WorldConfig;
+
+/**
+ * Macro-benchmark de corridas completas ({@link World#fromConfig} + {@link SimulationEngine}) por tamanho,
+ * densidade e nº de threads. Escala forte: um mundo por cenário, com as partes paralelas
+ * (inicialização) num {@link ForkJoinPool} de t threads. Escala fraca: t mundos independentes do mesmo
+ * tamanho em t threads. Uma linha CSV por medição (passos/s, organismos atualizados/s, pico de heap,
+ * tempo de GC), para comparar entre versões; falta de memória fica registada como status=oom.
+ *
+ * Argumentos "chave=valor": sizes (ex.: 20,100,1000,10000), densities (sparse, default, dense),
+ * threads (ex.: 1,2,4), mode (strong, weak, both), steps, maxSeconds (por medição), seed e out (ficheiro CSV).
+ */
+public final class ScalingBench {
+
+    private static final String HEADER = "mode,width,height,density,threads,steps,initMs,stepsPerSec,"
+            + "updatesPerSec,heapPeakMB,gcMs,gcCount,status";
+
+    private static final Map<String, double[]> DENSITIES = Map.of(
+            "sparse", new double[] {0.01, 0.03, 0.10},
+            "default", new double[] {0.04, 0.12, 0.75},
+            "dense", new double[] {0.05, 0.25, 0.65});
+
+    private ScalingBench() {}
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> opts = new HashMap<>();
+        for (String a : args) {
+            int eq = a.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Argumento inválido (esperado chave=valor): " + a);
+            opts.put(a.substring(0, eq), a.substring(eq + 1));
+        }
+        int[] sizes = ints(opts.getOrDefault("sizes", "20,100,500,1000,2000,5000,10000"));
+        String[] densities = opts.getOrDefault("densities", "sparse,default,dense").split(",");
+        int[] threads = ints(opts.getOrDefault("threads", "1," + Runtime.getRuntime().availableProcessors()));
+        String mode = opts.getOrDefault("mode", "both");
+        int steps = Integer.parseInt(opts.getOrDefault("steps", "50"));
+        double maxSeconds = Double.parseDouble(opts.getOrDefault("maxSeconds", "60"));
+        long seed = Long.parseLong(opts.getOrDefault("seed", "42"));
+
+        PrintStream out = System.out;
+        if (opts.containsKey("out")) {
+            Path file = Path.of(opts.get("out"));
+            boolean fresh = !Files.exists(file);
+            out = new PrintStream(Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND),
+                    true, "UTF-8");
+            if (fresh) out.println(HEADER);
+        } else {
+            out.println(HEADER);
+        }
+
+        // aquecimento (JIT) fora das medições
+        run(new WorldConfig(100, 100, 0.04, 0.12, 0.75), seed, 200, maxSeconds);
+
+        for (String density : densities) {
+            double[] p = DENSITIES.get(density.trim());
+            if (p == null) throw new IllegalArgumentException("Densidade desconhecida: " + density + " " + DENSITIES.keySet());
+            for (int size : sizes) {
+                WorldConfig cfg = new WorldConfig(size, size, p[0], p[1], p[2]);
+                for (int t : threads) {
+                    if (!mode.equals("weak")) out.println(strong(cfg, density, t, steps, maxSeconds, seed));
+                    if (!mode.equals("strong")) out.println(weak(cfg, density, t, steps, maxSeconds, seed));
+                }
+            }
+        }
+        if (out != System.out) out.close();
+    }
+
+    // -------------------- MEDIÇÕES --------------------
+
+    private static String strong(WorldConfig cfg, String density, int threads, int steps, double maxSeconds, long seed) {
+        Probe probe = Probe.start();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            Run r = pool.submit(() -> run(cfg, seed, steps, maxSeconds)).get();
+            return probe.line("strong", cfg, density, threads, r.steps, r.initNanos, r.stepNanos, r.updates, "ok");
+        } catch (ExecutionException e) {
+            return probe.line("strong", cfg, density, threads, 0, 0, 0, 0, status(e.getCause()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return probe.line("strong", cfg, density, threads, 0, 0, 0, 0, "interrupted");
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /** t mundos iguais (sementes diferentes) em t threads; os totais são a soma dos mundos. */
+    private static String weak(WorldConfig cfg, String density, int threads, int steps, double maxSeconds, long seed) {
+        Probe probe = Probe.start();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Run>> futures = new ArrayList<>();
+            long t0 = System.nanoTime();
+            for (int i = 0; i < threads; i++) {
+                long s = seed + i;
+                futures.add(pool.submit(() -> run(cfg, s, steps, maxSeconds)));
+            }
+            long totalSteps = 0, updates = 0, init = 0;
+            for (Future<Run> f : futures) {
+                Run r = f.get();
+                totalSteps += r.steps;
+                updates += r.updates;
+                init = Math.max(init, r.initNanos);
+            }
+            long wall = System.nanoTime() - t0 - init;
+            return probe.line("weak", cfg, density, threads, totalSteps, init, wall, updates, "ok");
+        } catch (ExecutionException e) {
+            return probe.line("weak", cfg, density, threads, 0, 0, 0, 0, status(e.getCause()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return probe.line("weak", cfg, density, threads, 0, 0, 0, 0, "interrupted");
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static Run run(WorldConfig cfg, long seed, int steps, double maxSeconds) {
+        Random rng = new Random(seed);
+        long t0 = System.nanoTime();
+        World world = World.fromConfig(cfg, rng);
+        SimulationEngine engine = new SimulationEngine(world, rng);
+        long t1 = System.nanoTime();
+
+        long deadline = t1 + (long) (maxSeconds * 1e9);
+        long updates = 0;
+        int ran = 0;
+        while (ran < steps && System.nanoTime() < deadline) {
+            updates += world.getOrganismsView().size();
+            engine.step();
+            ran++;
+        }
+        return new Run(ran, t1 - t0, System.nanoTime() - t1, updates);
+    }
+
+    private static String status(Throwable t) {
+        if (t instanceof OutOfMemoryError) return "oom";
+        return "error:" + t.getClass().getSimpleName();
+    }
+
+    private static int[] ints(String csv) {
+        String[] parts = csv.split(",");
+        int[] v = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) v[i] = Integer.parseInt(parts[i].trim());
+        return v;
+    }
+
+    private static final class Run {
+        final int steps;
+        final long initNanos;
+        final long stepNanos;
+        final long updates;
+
+        Run(int steps, long initNanos, long stepNanos, long updates) {
+            this.steps = steps;
+            this.initNanos = initNanos;
+            this.stepNanos = stepNanos;
+            this.updates = updates;
+        }
+    }
+
+    // -------------------- HEAP E GC --------------------
+
+    /** Pico de heap (desde o início da medição) e GC acumulado, lidos dos MXBeans da JVM. */
+    private static final class Probe {
+        private final long gcMs0;
+        private final long gcCount0;
+
+        private Probe(long gcMs0, long gcCount0) {
+            this.gcMs0 = gcMs0;
+            this.gcCount0 = gcCount0;
+        }
+
+        static Probe start() {
+            System.gc();   // não herdar lixo da medição anterior
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) pool.resetPeakUsage();
+            }
+            return new Probe(gcMillis(), gcCount());
+        }
+
+        String line(String mode, WorldConfig cfg, String density, int threads, long steps,
+                    long initNanos, long stepNanos, long updates, String status) {
+            long peak = 0;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) peak += pool.getPeakUsage().getUsed();
+            }
+            double secs = Math.max(stepNanos / 1e9, 1e-9);
+            return String.format(Locale.ROOT, "%s,%d,%d,%s,%d,%d,%.1f,%.2f,%.0f,%.1f,%d,%d,%s",
+                    mode, cfg.getWidth(), cfg.getHeight(), density, threads, steps, initNanos / 1e6,
+                    steps / secs, updates / secs, peak / (1024.0 * 1024.0),
+                    gcMillis() - gcMs0, gcCount() - gcCount0, status);
+        }
+
+        private static long gcMillis() {
+            long t = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) t += Math.max(0, gc.getCollectionTime());
+            return t;
+        }
+
+        private static long gcCount() {
+            long c = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) c += Math.max(0, gc.getCollectionCount());
+            return c;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package bench;
+
+import java.util.Random;
+import model.Organism;
+import model.Position;
+import model.Species;
+import world.World;
+import world.WorldConfig;
+
+/**
+ * Custo de "ovelha mais próxima num raio" com o índice espacial vs. varrer a janela do raio,
+ * para mundos de tamanho crescente. Argumentos opcionais: raio e nº de pesquisas.
+ */
+public final class SpatialQueryBench {
+
+    private SpatialQueryBench() {}
+
+    public static void main(String[] args) {
+        int radius = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        int[] sizes = {64, 256, 1024, 2048};
+
+        System.out.println("size,radius,indexNsPerQuery,scanNsPerQuery");
+        for (int size : sizes) {
+            World world = World.fromConfig(new WorldConfig(size, size, 0.04, 0.12, 0.30), new Random(42));
+            Position[] points = new Position[queries];
+            Random r = new Random(1);
+            for (int i = 0; i < queries; i++) points[i] = new Position(r.nextInt(size), r.nextInt(size));
+
+            // aquecimento (JIT) antes de medir
+            run(world, points, radius, true);
+            run(world, points, radius, false);
+
+            double idx = run(world, points, radius, true);
+            double scan = run(world, points, radius, false);
+            System.out.printf("%d,%d,%.1f,%.1f%n", size, radius, idx, scan);
+        }
+    }
+
+    private static long sink;
+
+    private static double run(World world, Position[] points, int radius, boolean useIndex) {
+        long t0 = System.nanoTime();
+        long acc = 0;
+        for (Position p : points) {
+            Position n = useIndex ? world.findNearest(p, Species.SHEEP, radius) : scanNearest(world, p, radius);
+            if (n != null) acc += n.x();
+        }
+        sink += acc;
+        return (System.nanoTime() - t0) / (double) points.length;
+    }
+
+    /** Referência O(r²): percorre todo o quadrado do raio. */
+    private static Position scanNearest(World world, Position from, int radius) {
+        Position best = null;
+        int bestD = radius + 1;
+        for (int dy = -radius; dy <= radius; dy++) {
+            for (int dx = -radius; dx <= radius; dx++) {
+                int d = Math.abs(dx) + Math.abs(dy);
+                if (d == 0 || d >= bestD) continue;
+                Position p = new Position(from.x() + dx, from.y() + dy);
+                Organism o = world.getAt(p);
+                if (o != null && o.getSpecies() == Species.SHEEP) {
+                    best = p;
+                    bestD = d;
+                }
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,89 @@
+package io;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Formato binário de frames (ficheiro ".simf").
+ *
+ * <pre>
+ * cabeçalho: int MAGIC, short VERSION, int width, int height, int keyframeInterval
+ * frame:     byte kind (KEY/DELTA), int step, int payloadLength, payload
+ * payload:   RLE de pares (byte valor, varint comprimento) sobre width*height bytes;
+ *            KEY codifica os códigos de espécie, DELTA o XOR com o frame anterior
+ * </pre>
+ *
+ * Códigos: 0 = vazio, 1 + ordinal da espécie (ver {@code World.copySpeciesCodes}).
+ */
+final class FrameFormat {
+
+    static final int MAGIC = 0x53494D46; // "SIMF"
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 4 + 2 + 4 + 4 + 4;
+    static final int FRAME_HEADER_BYTES = 1 + 4 + 4;
+
+    static final byte KEY = 0;
+    static final byte DELTA = 1;
+
+    private FrameFormat() {}
+
+    /** Pior caso do RLE: uma run por byte (1 byte de valor + 1 de varint). */
+    static int maxPayload(int cells) {
+        return cells * 2;
+    }
+
+    /**
+     * RLE de {@code src[0..n)} para {@code out}; com {@code base != null} codifica {@code src ^ base}
+     * (delta) sem passar por um buffer intermédio. Devolve o nº de bytes escritos.
+     */
+    static int encodeRle(byte[] src, byte[] base, int n, byte[] out) {
+        int o = 0;
+        int i = 0;
+        while (i < n) {
+            byte v = base == null ? src[i] : (byte) (src[i] ^ base[i]);
+            int j = i + 1;
+            if (base == null) {
+                while (j < n && src[j] == v) j++;
+            } else {
+                while (j < n && (byte) (src[j] ^ base[j]) == v) j++;
+            }
+            out[o++] = v;
+            int run = j - i;
+            while ((run & ~0x7F) != 0) {
+                out[o++] = (byte) ((run & 0x7F) | 0x80);
+                run >>>= 7;
+            }
+            out[o++] = (byte) run;
+            i = j;
+        }
+        return o;
+    }
+
+    /** Descodifica para {@code dst}; com {@code xor} aplica o delta sobre o conteúdo atual. */
+    static void decodeRle(ByteBuffer in, byte[] dst, int n, boolean xor) {
+        int i = 0;
+        while (i < n) {
+            byte v = in.get();
+            int run = getVarint(in);
+            if (i + run > n) throw new IllegalStateException("Frame corrompido: run excede a grelha.");
+            if (xor) {
+                if (v != 0) for (int k = i; k < i + run; k++) dst[k] ^= v;
+            } else {
+                Arrays.fill(dst, i, i + run, v);
+            }
+            i += run;
+        }
+    }
+
+    static int getVarint(ByteBuffer in) {
+        int v = 0;
+        int shift = 0;
+        while (true) {
+            byte b = in.get();
+            v |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return v;
+            shift += 7;
+            if (shift > 28) throw new IllegalStateException("Varint inválido.");
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Lê ficheiros gravados por {@link FrameStreamWriter}. Ao abrir, indexa os frames saltando
+ * os payloads; um intervalo descodifica-se a partir do keyframe anterior mais próximo.
+ */
+public final class FrameStreamReader implements Closeable {
+
+    /** Recebe cada frame descodificado; o array é reutilizado entre chamadas. */
+    public interface FrameConsumer {
+        void accept(int step, byte[] codes);
+    }
+
+    private final FileChannel channel;
+    private final int width;
+    private final int height;
+    private final int keyframeInterval;
+
+    private long[] offsets = new long[64]; // início do payload
+    private int[] lengths = new int[64];
+    private int[] steps = new int[64];
+    private boolean[] keys = new boolean[64];
+    private int frameCount;
+
+    private ByteBuffer payload = ByteBuffer.allocate(0);
+
+    public FrameStreamReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+
+        ByteBuffer h = readFully(0, FrameFormat.HEADER_BYTES);
+        if (h.getInt() != FrameFormat.MAGIC) throw new IOException("Não é um ficheiro de frames: " + file);
+        short version = h.getShort();
+        if (version != FrameFormat.VERSION) throw new IOException("Versão não suportada: " + version);
+        this.width = h.getInt();
+        this.height = h.getInt();
+        this.keyframeInterval = h.getInt();
+
+        buildIndex();
+    }
+
+    private void buildIndex() throws IOException {
+        long pos = FrameFormat.HEADER_BYTES;
+        long size = channel.size();
+        while (pos + FrameFormat.FRAME_HEADER_BYTES <= size) {
+            ByteBuffer fh = readFully(pos, FrameFormat.FRAME_HEADER_BYTES);
+            byte kind = fh.get();
+            int step = fh.getInt();
+            int len = fh.getInt();
+            long start = pos + FrameFormat.FRAME_HEADER_BYTES;
+            if (start + len > size) break; // frame incompleto (gravação interrompida)
+
+            if (frameCount == offsets.length) {
+                int n = frameCount * 2;
+                offsets = Arrays.copyOf(offsets, n);
+                lengths = Arrays.copyOf(lengths, n);
+                steps = Arrays.copyOf(steps, n);
+                keys = Arrays.copyOf(keys, n);
+            }
+            offsets[frameCount] = start;
+            lengths[frameCount] = len;
+            steps[frameCount] = step;
+            keys[frameCount] = kind == FrameFormat.KEY;
+            frameCount++;
+            pos = start + len;
+        }
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public int getKeyframeInterval() { return keyframeInterval; }
+    public int getFrameCount() { return frameCount; }
+
+    /** Passo do motor gravado no frame {@code index}. */
+    public int getStep(int index) { return steps[index]; }
+
+    /** Descodifica os frames [from, to) por ordem. */
+    public void readFrames(int from, int to, FrameConsumer consumer) throws IOException {
+        if (from < 0 || to > frameCount || from > to) {
+            throw new IndexOutOfBoundsException("Intervalo inválido [" + from + ", " + to + ") de " + frameCount);
+        }
+        if (from == to) return;
+
+        int k = from;
+        while (!keys[k]) k--;
+
+        byte[] codes = new byte[width * height];
+        for (int i = k; i < to; i++) {
+            ByteBuffer in = readPayload(i);
+            FrameFormat.decodeRle(in, codes, codes.length, !keys[i]);
+            if (i >= from) consumer.accept(steps[i], codes);
+        }
+    }
+
+    private ByteBuffer readPayload(int index) throws IOException {
+        int len = lengths[index];
+        if (payload.capacity() < len) payload = ByteBuffer.allocate(len);
+        payload.clear().limit(len);
+        long pos = offsets[index];
+        while (payload.hasRemaining()) {
+            int r = channel.read(payload, pos);
+            if (r < 0) throw new IOException("Fim de ficheiro inesperado.");
+            pos += r;
+        }
+        return payload.flip();
+    }
+
+    private ByteBuffer readFully(long pos, int len) throws IOException {
+        ByteBuffer b = ByteBuffer.allocate(len);
+        while (b.hasRemaining()) {
+            int r = channel.read(b, pos + b.position());
+            if (r < 0) throw new IOException("Fim de ficheiro inesperado.");
+        }
+        return b.flip();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
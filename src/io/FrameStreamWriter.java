@@ -0,0 +1,109 @@
+package io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import sim.EventBatch;
+import sim.StepListener;
+import world.World;
+
+/**
+ * Grava um frame por passo no formato {@link FrameFormat}: um keyframe RLE a cada
+ * {@code keyframeInterval} frames e, entre eles, o XOR com o frame anterior em RLE.
+ * Como {@link StepListener}, grava no fim de cada passo do motor.
+ */
+public final class FrameStreamWriter implements StepListener, Closeable {
+
+    private static final int OUT_BUFFER_BYTES = 1 << 20;
+
+    private final World world;
+    private final FileChannel channel;
+    private final int cells;
+    private final int keyframeInterval;
+
+    private byte[] previous;
+    private byte[] current;
+    private final byte[] encoded;
+    private final ByteBuffer out;
+    private long frames;
+
+    public FrameStreamWriter(World world, Path file, int keyframeInterval) throws IOException {
+        if (keyframeInterval <= 0) throw new IllegalArgumentException("Intervalo de keyframes inválido: " + keyframeInterval);
+        this.world = world;
+        this.keyframeInterval = keyframeInterval;
+        this.cells = world.getWidth() * world.getHeight();
+        this.previous = new byte[cells];
+        this.current = new byte[cells];
+        this.encoded = new byte[FrameFormat.maxPayload(cells)];
+        this.out = ByteBuffer.allocateDirect(OUT_BUFFER_BYTES);
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+
+        out.putInt(FrameFormat.MAGIC);
+        out.putShort(FrameFormat.VERSION);
+        out.putInt(world.getWidth());
+        out.putInt(world.getHeight());
+        out.putInt(keyframeInterval);
+    }
+
+    @Override
+    public void onEvents(int step, EventBatch batch) {
+        // só interessa o estado no fim do passo
+    }
+
+    @Override
+    public void onStepEnd(int step) {
+        try {
+            writeFrame(step);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Grava o estado atual do mundo como frame do passo {@code step}. */
+    public void writeFrame(int step) throws IOException {
+        world.copySpeciesCodes(current);
+
+        boolean key = frames % keyframeInterval == 0;
+        int len = FrameFormat.encodeRle(current, key ? null : previous, cells, encoded);
+
+        if (out.remaining() < FrameFormat.FRAME_HEADER_BYTES + len) flush();
+        out.put(key ? FrameFormat.KEY : FrameFormat.DELTA);
+        out.putInt(step);
+        out.putInt(len);
+        if (out.remaining() >= len) {
+            out.put(encoded, 0, len);
+        } else {
+            // frame maior que o buffer: vai direto para o canal
+            flush();
+            ByteBuffer big = ByteBuffer.wrap(encoded, 0, len);
+            while (big.hasRemaining()) channel.write(big);
+        }
+
+        byte[] t = previous;
+        previous = current;
+        current = t;
+        frames++;
+    }
+
+    public long getFrameCount() { return frames; }
+
+    private void flush() throws IOException {
+        out.flip();
+        while (out.hasRemaining()) channel.write(out);
+        out.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
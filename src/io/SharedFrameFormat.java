@@ -0,0 +1,81 @@
+package io;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Disposição do anel de frames em memória partilhada (ficheiro ".simr"), little-endian.
+ *
+ * <pre>
+ * cabeçalho (64 bytes):
+ *   0  int MAGIC          (escrito por último: o leitor espera por ele)
+ *   4  short VERSION, 6 short statCount
+ *   8  int width, 12 int height
+ *   16 int slots, 20 int slotBytes
+ *   24 long latest        (nº do último frame completo; -1 antes do primeiro)
+ * slot i (em 64 + i * slotBytes; slotBytes é múltiplo de 64):
+ *   0  long seq           (ímpar enquanto o escritor o preenche; 2 * (frame + 1) quando estável)
+ *   8  int step, 12 int reservado
+ *   16 long[statCount] estatísticas (ordem de {@link #STAT_NAMES})
+ *   .. byte[width*height] códigos de espécie (0 = vazio, 1 + ordinal)
+ *   .. byte[width*height] idades (saturadas em 255)
+ * </pre>
+ *
+ * O frame n vai para o slot {@code n % slots}: o escritor nunca espera, e um leitor atrasado só
+ * perde frames (deteta-o pelo {@code seq}, que deixa de bater certo).
+ */
+final class SharedFrameFormat {
+
+    static final int MAGIC = 0x53494D52; // "SIMR"
+    static final short VERSION = 2; // 2: + immigratedSheep, immigratedWolves
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    static final int HEADER_BYTES = 64;
+    static final int OFF_MAGIC = 0;
+    static final int OFF_VERSION = 4;
+    static final int OFF_STAT_COUNT = 6;
+    static final int OFF_WIDTH = 8;
+    static final int OFF_HEIGHT = 12;
+    static final int OFF_SLOTS = 16;
+    static final int OFF_SLOT_BYTES = 20;
+    static final int OFF_LATEST = 24;
+
+    static final int SLOT_SEQ = 0;
+    static final int SLOT_STEP = 8;
+    static final int SLOT_STATS = 16;
+
+    static final int DEFAULT_SLOTS = 3;
+
+    /** Contadores publicados com cada frame: os de {@code SimulationStats} e as populações atuais. */
+    static final String[] STAT_NAMES = {
+            "initialPlants", "initialSheep", "initialWolves",
+            "bornPlants", "bornSheep", "bornWolves",
+            "plantsEatenBySheep", "sheepEatenByWolves", "plantsRemovedByWolves",
+            "plantsDiedOldAge", "sheepDiedOldAge", "sheepDiedStarvation",
+            "wolvesDiedOldAge", "wolvesDiedStarvation",
+            "immigratedSheep", "immigratedWolves",
+            "plants", "sheep", "wolves"
+    };
+
+    /** Acessos ordenados (release/acquire) a campos long alinhados do ficheiro mapeado. */
+    static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ORDER);
+    static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ORDER);
+
+    private SharedFrameFormat() {}
+
+    static int codesOffset(int statCount) {
+        return SLOT_STATS + statCount * 8;
+    }
+
+    static int slotBytes(int cells, int statCount) {
+        long raw = (long) codesOffset(statCount) + 2L * cells;
+        long rounded = (raw + 63) & ~63L;
+        if (rounded > Integer.MAX_VALUE) throw new IllegalArgumentException("Grelha grande demais para um slot: " + cells);
+        return (int) rounded;
+    }
+
+    static long fileBytes(int slots, int slotBytes) {
+        return HEADER_BYTES + (long) slots * slotBytes;
+    }
+}
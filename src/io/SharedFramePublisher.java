@@ -0,0 +1,135 @@
+package io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import model.Species;
+import sim.EventBatch;
+import sim.SimulationStats;
+import sim.StepListener;
+import world.World;
+
+import static io.SharedFrameFormat.*;
+
+/**
+ * Publica o estado por célula (espécie e idade) e as estatísticas num anel de frames mapeado em
+ * memória (ver {@link SharedFrameFormat}), para um visualizador noutro processo ler com
+ * {@link SharedFrameReader}. Cada slot é protegido por um seqlock: o escritor nunca espera pelo
+ * leitor, e o leitor descarta o que apanhar a meio de uma escrita.
+ * Como {@link StepListener}, publica no fim de cada passo do motor.
+ */
+public final class SharedFramePublisher implements StepListener, Closeable {
+
+    private final World world;
+    private final SimulationStats stats;
+    private final FileChannel channel;
+    private final MappedByteBuffer map;
+    private final int slots;
+    private final int slotBytes;
+    private final int cells;
+    private final int codesOffset;
+
+    private final byte[] codes;
+    private final byte[] ages;
+    private final long[] values = new long[STAT_NAMES.length];
+    private long frames;
+
+    public SharedFramePublisher(World world, SimulationStats stats, Path file) throws IOException {
+        this(world, stats, file, DEFAULT_SLOTS);
+    }
+
+    public SharedFramePublisher(World world, SimulationStats stats, Path file, int slots) throws IOException {
+        if (slots < 2) throw new IllegalArgumentException("O anel precisa de pelo menos 2 slots: " + slots);
+        this.world = world;
+        this.stats = stats;
+        this.slots = slots;
+        this.cells = world.getWidth() * world.getHeight();
+        this.codesOffset = SharedFrameFormat.codesOffset(STAT_NAMES.length);
+        this.slotBytes = SharedFrameFormat.slotBytes(cells, STAT_NAMES.length);
+        long size = fileBytes(slots, slotBytes);
+        if (size > Integer.MAX_VALUE) throw new IllegalArgumentException("Anel grande demais para mapear: " + size + " bytes");
+
+        this.codes = new byte[cells];
+        this.ages = new byte[cells];
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.map = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        map.order(ORDER);
+
+        map.putShort(OFF_VERSION, VERSION);
+        map.putShort(OFF_STAT_COUNT, (short) STAT_NAMES.length);
+        map.putInt(OFF_WIDTH, world.getWidth());
+        map.putInt(OFF_HEIGHT, world.getHeight());
+        map.putInt(OFF_SLOTS, slots);
+        map.putInt(OFF_SLOT_BYTES, slotBytes);
+        LONGS.setRelease(map, OFF_LATEST, -1L);
+        INTS.setRelease(map, OFF_MAGIC, MAGIC); // por último: um leitor que veja o MAGIC vê o resto
+    }
+
+    @Override
+    public void onEvents(int step, EventBatch batch) {
+        // só interessa o estado no fim do passo
+    }
+
+    @Override
+    public void onStepEnd(int step) {
+        publish(step);
+    }
+
+    /** Nº de frames publicados até agora. */
+    public long getFrameCount() { return frames; }
+
+    /** Escreve o estado atual no próximo slot do anel e anuncia-o como o mais recente. */
+    public void publish(int step) {
+        world.copyCellState(codes, ages);
+        fillStats();
+
+        long frame = frames;
+        int base = HEADER_BYTES + (int) (frame % slots) * slotBytes;
+        long seq = 2 * frame + 1;
+
+        LONGS.setOpaque(map, base + SLOT_SEQ, seq);
+        VarHandle.storeStoreFence(); // o seq ímpar fica visível antes de qualquer byte do frame
+
+        map.putInt(base + SLOT_STEP, step);
+        for (int i = 0; i < values.length; i++) map.putLong(base + SLOT_STATS + i * 8, values[i]);
+        map.put(base + codesOffset, codes);
+        map.put(base + codesOffset + cells, ages);
+
+        LONGS.setRelease(map, base + SLOT_SEQ, seq + 1);
+        LONGS.setRelease(map, OFF_LATEST, frame);
+        frames = frame + 1;
+    }
+
+    private void fillStats() {
+        int i = 0;
+        values[i++] = stats.getInitialPlants();
+        values[i++] = stats.getInitialSheep();
+        values[i++] = stats.getInitialWolves();
+        values[i++] = stats.getBornPlants();
+        values[i++] = stats.getBornSheep();
+        values[i++] = stats.getBornWolves();
+        values[i++] = stats.getPlantsEatenBySheep();
+        values[i++] = stats.getSheepEatenByWolves();
+        values[i++] = stats.getPlantsRemovedByWolves();
+        values[i++] = stats.getPlantsDiedOldAge();
+        values[i++] = stats.getSheepDiedOldAge();
+        values[i++] = stats.getSheepDiedStarvation();
+        values[i++] = stats.getWolvesDiedOldAge();
+        values[i++] = stats.getWolvesDiedStarvation();
+        values[i++] = stats.getImmigratedSheep();
+        values[i++] = stats.getImmigratedWolves();
+        values[i++] = world.getPopulation(Species.PLANT);
+        values[i++] = world.getPopulation(Species.SHEEP);
+        values[i] = world.getPopulation(Species.WOLF);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close(); // o mapeamento continua válido para quem ainda o tenha aberto
+    }
+}
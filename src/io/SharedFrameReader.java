@@ -0,0 +1,210 @@
+package io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static io.SharedFrameFormat.*;
+
+/**
+ * Lê o anel de frames escrito por {@link SharedFramePublisher}, normalmente noutro processo.
+ * O ficheiro é mapeado só para leitura; cada leitura segue o seqlock do slot e repete se o
+ * escritor lhe passou por cima a meio. O leitor nunca atrasa o escritor.
+ */
+public final class SharedFrameReader implements Closeable {
+
+    /** Tentativas antes de desistir de um frame (o escritor está a dar a volta ao anel mais depressa). */
+    private static final int MAX_RETRIES = 16;
+
+    /** Frame consistente copiado do anel; os arrays são reutilizados entre leituras. */
+    public static final class Frame {
+        private long number = -1;
+        private int step;
+        private final long[] stats;
+        private final byte[] codes;
+        private final byte[] ages;
+
+        private Frame(int statCount, int cells) {
+            this.stats = new long[statCount];
+            this.codes = new byte[cells];
+            this.ages = new byte[cells];
+        }
+
+        /** Nº de ordem do frame no anel (0 para o primeiro publicado). */
+        public long getNumber() { return number; }
+        public int getStep() { return step; }
+        /** Códigos por célula, linha a linha: 0 = vazio, 1 + ordinal da espécie. */
+        public byte[] getCodes() { return codes; }
+        /** Idades por célula, linha a linha (saturadas em 255). */
+        public byte[] getAges() { return ages; }
+        public long getStat(int index) { return stats[index]; }
+
+        public long getStat(String name) {
+            int i = statNames().indexOf(name);
+            if (i < 0) throw new IllegalArgumentException("Estatística desconhecida: " + name);
+            return stats[i];
+        }
+
+        public String toTextLine() {
+            StringBuilder sb = new StringBuilder("frame=").append(number).append(" step=").append(step);
+            for (int i = 0; i < stats.length; i++) sb.append(' ').append(STAT_NAMES[i]).append('=').append(stats[i]);
+            return sb.toString();
+        }
+    }
+
+    /** Acesso sem cópia ao slot: as vistas só são válidas durante a chamada. */
+    public interface FrameVisitor {
+        void visit(int step, ByteBuffer codes, ByteBuffer ages);
+    }
+
+    private final FileChannel channel;
+    private final MappedByteBuffer map;
+    private final int width;
+    private final int height;
+    private final int slots;
+    private final int slotBytes;
+    private final int statCount;
+    private final int codesOffset;
+
+    public SharedFrameReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        if (channel.size() < HEADER_BYTES) {
+            channel.close();
+            throw new IOException("Anel ainda não criado ou truncado: " + file);
+        }
+        MappedByteBuffer head = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+        head.order(ORDER);
+        if ((int) INTS.getAcquire(head, OFF_MAGIC) != MAGIC) {
+            channel.close();
+            throw new IOException("Não é um anel de frames (ou ainda está a ser criado): " + file);
+        }
+        short version = head.getShort(OFF_VERSION);
+        if (version != VERSION) {
+            channel.close();
+            throw new IOException("Versão não suportada: " + version);
+        }
+        this.statCount = head.getShort(OFF_STAT_COUNT);
+        this.width = head.getInt(OFF_WIDTH);
+        this.height = head.getInt(OFF_HEIGHT);
+        this.slots = head.getInt(OFF_SLOTS);
+        this.slotBytes = head.getInt(OFF_SLOT_BYTES);
+        this.codesOffset = SharedFrameFormat.codesOffset(statCount);
+
+        this.map = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileBytes(slots, slotBytes));
+        map.order(ORDER);
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public int getSlots() { return slots; }
+
+    /** Nomes das estatísticas, pela ordem de {@link Frame#getStat(int)}. */
+    public static List<String> statNames() {
+        return Collections.unmodifiableList(Arrays.asList(STAT_NAMES));
+    }
+
+    public Frame newFrame() {
+        return new Frame(statCount, width * height);
+    }
+
+    /** Nº do último frame completo (-1 se ainda não houve nenhum). */
+    public long latestFrame() {
+        return (long) LONGS.getAcquire(map, OFF_LATEST);
+    }
+
+    /**
+     * Copia o frame mais recente para {@code dst}. Devolve {@code false} se ainda não houver frames
+     * ou se todas as tentativas foram apanhadas pelo escritor.
+     */
+    public boolean readLatest(Frame dst) {
+        int cells = width * height;
+        for (int attempt = 0; attempt < MAX_RETRIES; attempt++) {
+            long frame = latestFrame();
+            if (frame < 0) return false;
+            int base = slotBase(frame);
+            long seq = (long) LONGS.getAcquire(map, base + SLOT_SEQ);
+            if (seq != 2 * frame + 2) continue; // já reutilizado para um frame mais novo
+
+            dst.step = map.getInt(base + SLOT_STEP);
+            for (int i = 0; i < statCount; i++) dst.stats[i] = map.getLong(base + SLOT_STATS + i * 8);
+            map.get(base + codesOffset, dst.codes, 0, cells);
+            map.get(base + codesOffset + cells, dst.ages, 0, cells);
+
+            VarHandle.loadLoadFence(); // as leituras do frame terminam antes de voltar a ver o seq
+            if ((long) LONGS.getOpaque(map, base + SLOT_SEQ) == seq) {
+                dst.number = frame;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Entrega ao visitante vistas só de leitura sobre o slot do frame mais recente, sem copiar nada.
+     * Como o escritor pode reutilizar o slot durante a visita, só se o resultado for {@code true}
+     * é que o que o visitante leu pertence todo ao mesmo frame.
+     */
+    public boolean visitLatest(FrameVisitor visitor) {
+        int cells = width * height;
+        long frame = latestFrame();
+        if (frame < 0) return false;
+        int base = slotBase(frame);
+        long seq = (long) LONGS.getAcquire(map, base + SLOT_SEQ);
+        if (seq != 2 * frame + 2) return false;
+
+        int step = map.getInt(base + SLOT_STEP);
+        visitor.visit(step, map.slice(base + codesOffset, cells).asReadOnlyBuffer(),
+                map.slice(base + codesOffset + cells, cells).asReadOnlyBuffer());
+
+        VarHandle.loadLoadFence();
+        return (long) LONGS.getOpaque(map, base + SLOT_SEQ) == seq;
+    }
+
+    private int slotBase(long frame) {
+        return HEADER_BYTES + (int) (frame % slots) * slotBytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Segue um anel a correr noutro processo e imprime uma linha por frame novo.
+     * Argumentos: ficheiro [intervalo de sondagem em ms, por omissão 100] [nº de frames, 0 = sem fim].
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.out.println("Uso: java io.SharedFrameReader <ficheiro.simr> [pollMs] [frames]");
+            return;
+        }
+        long pollMs = args.length > 1 ? Long.parseLong(args[1]) : 100;
+        long limit = args.length > 2 ? Long.parseLong(args[2]) : 0;
+
+        try (SharedFrameReader reader = new SharedFrameReader(Path.of(args[0]))) {
+            Frame frame = reader.newFrame();
+            long last = -1;
+            long shown = 0;
+            while (limit == 0 || shown < limit) {
+                if (reader.latestFrame() != last && reader.readLatest(frame)) {
+                    if (last >= 0 && frame.getNumber() > last + 1) {
+                        System.out.println("(saltados " + (frame.getNumber() - last - 1) + " frames)");
+                    }
+                    System.out.println(frame.toTextLine());
+                    last = frame.getNumber();
+                    shown++;
+                } else {
+                    Thread.sleep(pollMs);
+                }
+            }
+        }
+    }
+}
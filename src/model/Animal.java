@@ -2,24 +2,42 @@ package model;
 
 import world.WorldView;
 
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 public abstract class Animal extends Organism {
     private int energy;
+    private final int initialEnergy;
     private final int energyCostPerStep;
 
     protected Animal(Position position, int maxAge, int initialEnergy, int energyCostPerStep) {
         super(position, maxAge);
         this.energy = initialEnergy;
+        this.initialEnergy = initialEnergy;
         this.energyCostPerStep = energyCostPerStep;
     }
 
+    @Override
+    protected void onReuse() {
+        energy = initialEnergy;
+    }
+
     public final int getEnergy() { return energy; }
 
+    /** Impõe a energia (re-materialização de um mundo); só antes de colocar o animal no mundo. */
+    public final void restoreEnergy(int energy) {
+        if (energy <= 0) throw new IllegalArgumentException("Energia inválida: " + energy);
+        this.energy = energy;
+    }
+
     protected final void addEnergy(int delta) {
         energy += delta;
     }
 
+    /** Ganho de energia ao comer (valor vem da tabela de espécies do motor). */
+    public final void feed(int energyGain) {
+        addEnergy(energyGain);
+    }
+
     @Override
     public void onStepStart() {
         super.onStepStart();
@@ -29,13 +47,39 @@ public abstract class Animal extends Organism {
         if (energy <= 0) die();
     }
 
-    @Override
-    public boolean requiresMateForReproduction() {
-        return true;
+    /** Decide para onde se quer mover (motor aplica depois): vizinho aleatório onde pode entrar. */
+    public final Position chooseMoveTarget(WorldView world, RandomGenerator rng) {
+        Position p = world.randomAdjacent(getPosition(), rng, this::canEnterCell);
+        return p != null ? p : getPosition();
     }
 
-    /** Decide para onde se quer mover (motor aplica depois). */
-    public abstract Position chooseMoveTarget(WorldView world, Random rng);
+    /**
+     * Caça dirigida: vai para a presa mais próxima dentro do raio (pelo índice espacial do mundo),
+     * escolhendo ao acaso entre os passos que encurtam a distância; sem presa ou sem passo livre,
+     * comporta-se como {@link #chooseMoveTarget(WorldView, RandomGenerator)}.
+     */
+    public final Position chooseMoveTarget(WorldView world, RandomGenerator rng, Species prey, int radius) {
+        Position here = getPosition();
+        Position target = world.findNearest(here, prey, radius);
+        if (target == null) return chooseMoveTarget(world, rng);
+
+        int dx = Integer.signum(target.x() - here.x());
+        int dy = Integer.signum(target.y() - here.y());
+        Position horizontal = dx != 0 ? here.translate(dx, 0) : null;
+        Position vertical = dy != 0 ? here.translate(0, dy) : null;
 
-    protected abstract boolean canEnterCell(Organism occupant);
+        Position first = horizontal;
+        Position second = vertical;
+        if (horizontal != null && vertical != null && rng.nextBoolean()) {
+            first = vertical;
+            second = horizontal;
+        }
+        if (first != null && canEnterCell(world.getAt(first))) return first;
+        if (second != null && canEnterCell(world.getAt(second))) return second;
+        return chooseMoveTarget(world, rng);
+    }
+
+    protected final boolean canEnterCell(Organism occupant) {
+        return FoodWeb.canEnter(getSpecies(), occupant);
+    }
 }
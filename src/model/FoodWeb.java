@@ -0,0 +1,40 @@
+package model;
+
+import java.util.Arrays;
+
+/** Matriz "quem pode entrar / quem come quem", indexada por ordinal [quem entra][ocupante]. */
+public final class FoodWeb {
+
+    private static final int N = Species.values().length;
+    private static final Interaction[][] INTERACTION = new Interaction[N][N];
+    private static final int[][] ENERGY_GAIN = new int[N][N];
+
+    static {
+        for (Interaction[] row : INTERACTION) Arrays.fill(row, Interaction.BLOCKED);
+
+        set(Species.SHEEP, Species.PLANT, Interaction.EAT, Sheep.ENERGY_GAIN_FROM_PLANT);
+        set(Species.WOLF, Species.SHEEP, Interaction.EAT, Wolf.ENERGY_GAIN_FROM_SHEEP);
+        set(Species.WOLF, Species.PLANT, Interaction.TRAMPLE, 0);
+    }
+
+    private FoodWeb() {}
+
+    private static void set(Species mover, Species occupant, Interaction i, int gain) {
+        INTERACTION[mover.ordinal()][occupant.ordinal()] = i;
+        ENERGY_GAIN[mover.ordinal()][occupant.ordinal()] = gain;
+    }
+
+    public static Interaction interaction(Species mover, Species occupant) {
+        return INTERACTION[mover.ordinal()][occupant.ordinal()];
+    }
+
+    /** Energia ganha por {@code eater} ao comer {@code prey} (0 se não come). */
+    public static int energyGain(Species eater, Species prey) {
+        return ENERGY_GAIN[eater.ordinal()][prey.ordinal()];
+    }
+
+    /** Célula vazia: entra sempre; ocupada: só se não estiver bloqueado. */
+    public static boolean canEnter(Species mover, Organism occupant) {
+        return occupant == null || interaction(mover, occupant.getSpecies()) != Interaction.BLOCKED;
+    }
+}
@@ -0,0 +1,11 @@
+package model;
+
+/** O que acontece quando um animal tenta entrar numa célula ocupada. */
+public enum Interaction {
+    /** Não pode entrar. */
+    BLOCKED,
+    /** Entra, remove o ocupante e ganha energia. */
+    EAT,
+    /** Entra e remove o ocupante, sem ganhar energia. */
+    TRAMPLE
+}
@@ -2,16 +2,21 @@ package model;
 
 import world.WorldView;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Random;
+import java.util.Objects;
+import java.util.random.RandomGenerator;
 
 public abstract class Organism {
+
+    /** Sem id de linhagem: espécie não seguida, ou organismo ainda não registado. */
+    public static final int NO_LINEAGE_ID = -1;
+
     private Position position;
     private int age;
     private final int maxAge;
     private boolean alive = true;
+    private int lineageId = NO_LINEAGE_ID;
+    private int generation;       // nº de reutilizações por um pool de reciclagem
+    private boolean pooled;       // à espera de reutilização: nenhuma referência deve usá-lo
 
     protected Organism(Position position, int maxAge) {
         this.position = position;
@@ -25,6 +30,51 @@ public abstract class Organism {
     public final int getAge() { return age; }
     public final int getMaxAge() { return maxAge; }
 
+    /** Impõe a idade (re-materialização de um mundo); só antes de colocar o organismo no mundo. */
+    public final void restoreAge(int age) {
+        if (age < 0) throw new IllegalArgumentException("Idade inválida: " + age);
+        this.age = age;
+    }
+
+    public final int getLineageId() { return lineageId; }
+
+    /** Atribuído uma única vez pelo registo de linhagens ({@code sim.LineageTracker}). */
+    public final void assignLineageId(int id) {
+        if (id < 0) throw new IllegalArgumentException("Id de linhagem inválido: " + id);
+        if (lineageId != NO_LINEAGE_ID) throw new IllegalStateException("Id de linhagem já atribuído: " + lineageId);
+        this.lineageId = id;
+    }
+
+    // -------------------- RECICLAGEM (world.OrganismPool) --------------------
+
+    /** Quantas vezes este objeto já foi reutilizado; quem guarde uma referência pode compará-lo. */
+    public final int getGeneration() { return generation; }
+
+    /** Está num pool à espera de reutilização (qualquer uso é uma referência obsoleta). */
+    public final boolean isPooled() { return pooled; }
+
+    /** Entra no pool: sem posição, para que um uso indevido falhe cedo. */
+    public final void enterPool() {
+        if (pooled) throw new IllegalStateException("Organismo já está no pool.");
+        pooled = true;
+        position = null;
+    }
+
+    /** Sai do pool como um recém-nascido em {@code pos}: idade 0, vivo, sem linhagem, nova geração. */
+    public final void leavePool(Position pos) {
+        if (!pooled) throw new IllegalStateException("Organismo não está no pool.");
+        pooled = false;
+        position = pos;
+        age = 0;
+        alive = true;
+        lineageId = NO_LINEAGE_ID;
+        generation++;
+        onReuse();
+    }
+
+    /** Estado próprio da subclasse a repor na reutilização (a energia, nos animais). */
+    protected void onReuse() {}
+
     public final boolean isAlive() { return alive; }
     public final void die() { alive = false; }
 
@@ -37,22 +87,10 @@ public abstract class Organism {
         if (age > maxAge) die();
     }
 
-    /** Para Cenário 2: plantas não precisam de par; animais normalmente sim. */
-    public boolean requiresMateForReproduction() { return false; }
-
-    /** Para Cenário 2: animais sobrescrevem (idade/energia). */
-    public boolean isAdultForReproduction() { return true; }
-
-    public abstract double reproductionProbability();
     public abstract Organism createOffspring(Position pos);
 
     /** Escolhe vizinho vazio aleatório (N/S/E/W); se não houver, devolve null. */
-    protected final Position chooseRandomEmptyAdjacent(WorldView world, Random rng) {
-        List<Position> adj = new ArrayList<>(world.getAdjacent4(getPosition()));
-        Collections.shuffle(adj, rng);
-        for (Position p : adj) {
-            if (world.isEmpty(p)) return p;
-        }
-        return null;
+    protected final Position chooseRandomEmptyAdjacent(WorldView world, RandomGenerator rng) {
+        return world.randomAdjacent(getPosition(), rng, Objects::isNull);
     }
 }
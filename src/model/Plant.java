@@ -2,7 +2,7 @@ package model;
 
 import world.WorldView;
 
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 public final class Plant extends Organism {
     public static final int MAX_AGE = 20;
@@ -17,17 +17,12 @@ public final class Plant extends Organism {
         return Species.PLANT;
     }
 
-    @Override
-    public double reproductionProbability() {
-        return REPRO_PROBABILITY;
-    }
-
     @Override
     public Organism createOffspring(Position pos) {
         return new Plant(pos);
     }
 
-    public Position chooseReproductionTarget(WorldView world, Random rng) {
+    public Position chooseReproductionTarget(WorldView world, RandomGenerator rng) {
         return chooseRandomEmptyAdjacent(world, rng);
     }
 }
@@ -1,17 +1,36 @@
 package model;
 
+/** Espécies e os seus parâmetros base (a tabela do motor parte destes valores). */
 public enum Species {
-    PLANT('*'),
-    SHEEP('O'),
-    WOLF('W');
+    //    símbolo  móvel  precisa de par  prob. reprodução        idade mín.            energia mín.
+    PLANT('*',     false, false,          Plant.REPRO_PROBABILITY, 0,                    0),
+    SHEEP('O',     true,  true,           Sheep.REPRO_PROBABILITY, Sheep.MIN_REPRO_AGE,  Sheep.MIN_REPRO_ENERGY),
+    WOLF('W',      true,  true,           Wolf.REPRO_PROBABILITY,  Wolf.MIN_REPRO_AGE,   Wolf.MIN_REPRO_ENERGY);
 
     private final char symbol;
+    private final boolean mobile;
+    private final boolean requiresMate;
+    private final double reproProbability;
+    private final int minReproAge;
+    private final int minReproEnergy;
 
-    Species(char symbol) {
+    Species(char symbol, boolean mobile, boolean requiresMate, double reproProbability,
+            int minReproAge, int minReproEnergy) {
         this.symbol = symbol;
+        this.mobile = mobile;
+        this.requiresMate = requiresMate;
+        this.reproProbability = reproProbability;
+        this.minReproAge = minReproAge;
+        this.minReproEnergy = minReproEnergy;
     }
 
     public char symbol() {
         return symbol;
     }
+
+    public boolean isMobile() { return mobile; }
+    public boolean requiresMate() { return requiresMate; }
+    public double reproProbability() { return reproProbability; }
+    public int minReproAge() { return minReproAge; }
+    public int minReproEnergy() { return minReproEnergy; }
 }
@@ -1,12 +1,5 @@
 package model;
 
-import world.WorldView;
-
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Random;
-
 public final class Wolf extends Animal {
     public static final int MAX_AGE = 40;
 
@@ -28,39 +21,6 @@ public final class Wolf extends Animal {
         return Species.WOLF;
     }
 
-    @Override
-    protected boolean canEnterCell(Organism occupant) {
-        if (occupant == null) return true;
-        if (occupant.getSpecies() == Species.WOLF) return false;
-        return true;
-    }
-
-    @Override
-    public Position chooseMoveTarget(WorldView world, Random rng) {
-        List<Position> candidates = new ArrayList<>(world.getAdjacent4(getPosition()));
-        Collections.shuffle(candidates, rng);
-
-        for (Position p : candidates) {
-            Organism occ = world.getAt(p);
-            if (canEnterCell(occ)) return p;
-        }
-        return getPosition();
-    }
-
-    public void eatSheep() {
-        addEnergy(ENERGY_GAIN_FROM_SHEEP);
-    }
-
-    @Override
-    public boolean isAdultForReproduction() {
-        return getAge() >= MIN_REPRO_AGE && getEnergy() >= MIN_REPRO_ENERGY;
-    }
-
-    @Override
-    public double reproductionProbability() {
-        return REPRO_PROBABILITY;
-    }
-
     @Override
     public Organism createOffspring(Position pos) {
         return new Wolf(pos);
@@ -0,0 +1,82 @@
+package rng;
+
+import java.util.Objects;
+import java.util.random.RandomGenerator;
+
+/**
+ * Gerador com blocos de {@code long} pré-gerados a partir de outro gerador: os ciclos quentes
+ * ({@code roll()}, baralhos, inicialização) só leem do buffer, e o gerador de origem corre em lote.
+ * Não é thread-safe: um por thread ou por bloco (ver {@link RandomStreams}).
+ * Sobre uma fonte que gere {@code nextDouble()} a partir de {@code nextLong()} (SplittableRandom,
+ * família LXM) a sequência de {@code nextLong()}/{@code nextDouble()} é a mesma da fonte;
+ * sobre {@code java.util.Random} não é.
+ */
+public final class BufferedRandom implements RandomGenerator {
+
+    public static final int DEFAULT_BLOCK = 1024;
+
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+    private final RandomGenerator source;
+    private final long[] block;
+    private int next;
+
+    public BufferedRandom(RandomGenerator source) {
+        this(source, DEFAULT_BLOCK);
+    }
+
+    public BufferedRandom(RandomGenerator source, int blockSize) {
+        if (blockSize <= 0) throw new IllegalArgumentException("blockSize deve ser > 0");
+        this.source = Objects.requireNonNull(source);
+        this.block = new long[blockSize];
+        this.next = blockSize;   // primeiro acesso enche o bloco
+    }
+
+    public RandomGenerator getSource() {
+        return source;
+    }
+
+    @Override
+    public long nextLong() {
+        if (next == block.length) refill();
+        return block[next++];
+    }
+
+    private void refill() {
+        RandomGenerator src = source;
+        long[] b = block;
+        for (int i = 0; i < b.length; i++) b[i] = src.nextLong();
+        next = 0;
+    }
+
+    @Override
+    public int nextInt() {
+        return (int) (nextLong() >>> 32);
+    }
+
+    @Override
+    public double nextDouble() {
+        return (nextLong() >>> 11) * DOUBLE_UNIT;
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return nextLong() < 0;
+    }
+
+    /** Lemire (multiplicação + rejeição rara): sem divisão no caso comum e sem enviesamento. */
+    @Override
+    public int nextInt(int bound) {
+        if (bound <= 0) throw new IllegalArgumentException("bound deve ser > 0");
+        long m = (nextLong() >>> 32) * bound;
+        long low = m & 0xFFFF_FFFFL;
+        if (low < bound) {
+            long threshold = (0x1_0000_0000L - bound) % bound;
+            while (low < threshold) {
+                m = (nextLong() >>> 32) * bound;
+                low = m & 0xFFFF_FFFFL;
+            }
+        }
+        return (int) (m >>> 32);
+    }
+}
@@ -0,0 +1,21 @@
+package rng;
+
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/** Baralhos com qualquer {@link RandomGenerator}, sem a restrição de {@code Collections.shuffle} a {@code Random}. */
+public final class Permutations {
+
+    private Permutations() {}
+
+    /**
+     * Fisher–Yates pela mesma ordem de {@code Collections.shuffle}: com um {@code java.util.Random}
+     * consome os mesmos valores e dá a mesma permutação.
+     */
+    public static <T> void shuffle(List<T> list, RandomGenerator rng) {
+        for (int i = list.size(); i > 1; i--) {
+            int j = rng.nextInt(i);
+            list.set(j, list.set(i - 1, list.get(j)));
+        }
+    }
+}
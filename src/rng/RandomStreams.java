@@ -0,0 +1,92 @@
+package rng;
+
+import java.util.Random;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * Fluxos independentes e reprodutíveis, um por thread de trabalho ou por bloco da grelha:
+ * obtidos por {@code split()} se o algoritmo o suportar, senão por saltos ({@code copyAndJump()}),
+ * e em último caso por sementes derivadas (splitmix64) da semente base.
+ * O fluxo {@code i} depende só da semente, do algoritmo e de {@code i}, não do nº de threads.
+ */
+public final class RandomStreams {
+
+    /** Algoritmo "Random": o {@code java.util.Random} de sempre, com a sequência de referência. */
+    public static final String LEGACY = "Random";
+    public static final String BUFFERED_PREFIX = "buffered:";
+
+    private final RandomGenerator[] streams;
+
+    private RandomStreams(RandomGenerator[] streams) {
+        this.streams = streams;
+    }
+
+    public static RandomStreams create(String algorithm, long seed, int count) {
+        if (count <= 0) throw new IllegalArgumentException("count deve ser > 0");
+        boolean buffered = algorithm.startsWith(BUFFERED_PREFIX);
+        String name = buffered ? algorithm.substring(BUFFERED_PREFIX.length()) : algorithm;
+
+        RandomGenerator[] out = new RandomGenerator[count];
+        RandomGenerator root = base(name, seed);
+        for (int i = 0; i < count; i++) {
+            RandomGenerator g;
+            if (root instanceof RandomGenerator.SplittableGenerator) {
+                g = ((RandomGenerator.SplittableGenerator) root).split();
+            } else if (root instanceof RandomGenerator.JumpableGenerator) {
+                g = ((RandomGenerator.JumpableGenerator) root).copyAndJump();
+            } else {
+                g = base(name, mix(seed + (i + 1) * 0x9E3779B97F4A7C15L));
+            }
+            out[i] = buffered ? new BufferedRandom(g) : g;
+        }
+        return new RandomStreams(out);
+    }
+
+    /**
+     * {@code count} fluxos de {@code algorithm} (aceita o prefixo "buffered:"), o fluxo {@code i}
+     * semeado pelo {@code i}-ésimo {@code nextLong()} de {@code parent}, tirados já aqui e por ordem:
+     * o que se tira de {@code parent} não depende de quem usa os fluxos nem em que thread.
+     */
+    public static RandomStreams seededFrom(RandomGenerator parent, String algorithm, int count) {
+        if (count <= 0) throw new IllegalArgumentException("count deve ser > 0");
+        RandomGenerator[] out = new RandomGenerator[count];
+        for (int i = 0; i < count; i++) out[i] = create(algorithm, parent.nextLong());
+        return new RandomStreams(out);
+    }
+
+    public RandomGenerator get(int index) {
+        return streams[index];
+    }
+
+    public int size() {
+        return streams.length;
+    }
+
+    /**
+     * Gerador único a partir de um nome: "Random" (omissão, dinâmica de referência), qualquer
+     * algoritmo de {@link RandomGeneratorFactory} (ex.: "L64X128MixRandom", "SplittableRandom"),
+     * com prefixo "buffered:" para ler de blocos pré-gerados ({@link BufferedRandom}).
+     */
+    public static RandomGenerator create(String spec, long seed) {
+        if (spec.startsWith(BUFFERED_PREFIX)) {
+            return new BufferedRandom(base(spec.substring(BUFFERED_PREFIX.length()), seed));
+        }
+        return base(spec, seed);
+    }
+
+    private static RandomGenerator base(String name, long seed) {
+        if (LEGACY.equals(name)) return new Random(seed);
+        try {
+            return RandomGeneratorFactory.of(name).create(seed);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Gerador desconhecido: " + name, e);
+        }
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
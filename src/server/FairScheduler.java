@@ -0,0 +1,80 @@
+package server;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escalonador round-robin: um conjunto fixo de workers tira sessões de uma fila FIFO,
+ * corre um quantum de tempo e devolve-as ao fim da fila. Sessões que esgotam o orçamento
+ * de CPU da janela atual só voltam à fila quando a janela acaba. Um quantum que lança uma exceção
+ * põe só essa sessão em FAILED; o worker continua.
+ */
+final class FairScheduler {
+
+    private final LinkedBlockingQueue<SimulationSession> ready = new LinkedBlockingQueue<>();
+    private final ExecutorService workers;
+    private final ScheduledExecutorService timer;
+    private final long quantumNanos;
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private volatile boolean shutdown;
+
+    FairScheduler(int workerCount, long quantumMillis) {
+        if (workerCount <= 0) throw new IllegalArgumentException("Nº de workers inválido: " + workerCount);
+        this.quantumNanos = TimeUnit.MILLISECONDS.toNanos(quantumMillis);
+        this.workers = Executors.newFixedThreadPool(workerCount, r -> {
+            Thread t = new Thread(r, "sim-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sim-budget");
+            t.setDaemon(true);
+            return t;
+        });
+        for (int i = 0; i < workerCount; i++) workers.execute(this::workerLoop);
+    }
+
+    void enqueue(SimulationSession s) {
+        ready.offer(s);
+    }
+
+    void shutdown() {
+        shutdown = true;
+        workers.shutdownNow();
+        timer.shutdownNow();
+    }
+
+    private void workerLoop() {
+        while (!shutdown) {
+            SimulationSession s;
+            try {
+                s = ready.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            long cpu0 = cpuTime();
+            boolean again;
+            try {
+                again = s.runQuantum(quantumNanos);
+            } catch (RuntimeException e) {
+                s.fail(e);
+                continue;
+            }
+            if (!again) continue;
+
+            long delay = s.chargeCpu(cpuTime() - cpu0);
+            if (delay == 0) ready.offer(s);
+            else timer.schedule(() -> ready.offer(s), delay, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private long cpuTime() {
+        return threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+}
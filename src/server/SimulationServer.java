@@ -0,0 +1,226 @@
+package server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import sim.Engines;
+import world.WorldConfig;
+
+/**
+ * Servidor local (HTTP do JDK) que aloja várias simulações na mesma JVM.
+ *
+ * <pre>
+ * POST   /sims?width=&amp;height=&amp;wolves=&amp;sheep=&amp;plants=&amp;seed=&amp;engine=&amp;cpuMsPerSec=   cria; responde "id=N"
+ * GET    /sims                       lista
+ * GET    /sims/{id}                  estado + estatísticas
+ * POST   /sims/{id}/run?steps=N      corre em fundo (sem steps = até extinção)
+ * POST   /sims/{id}/pause
+ * POST   /sims/{id}/step?n=N         passos síncronos (em pausa)
+ * GET    /sims/{id}/stream?frames=true&amp;max=M   resposta chunked, uma entrada por passo observado
+ * DELETE /sims/{id}
+ * </pre>
+ *
+ * As simulações correm num conjunto fixo de threads com escalonamento round-robin ({@link FairScheduler}).
+ */
+public final class SimulationServer {
+
+    private static final long QUANTUM_MILLIS = 10;
+    private static final long STREAM_WAIT_MILLIS = 30_000;
+
+    private final HttpServer http;
+    private final FairScheduler scheduler;
+    private final Map<Integer, SimulationSession> sessions = new ConcurrentSkipListMap<>();
+    private final AtomicInteger nextId = new AtomicInteger(1);
+
+    public SimulationServer(int port, int workers) throws IOException {
+        this.scheduler = new FairScheduler(workers, QUANTUM_MILLIS);
+        this.http = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        this.http.createContext("/sims", this::handle);
+        // streams ficam abertos muito tempo: cada pedido na sua thread
+        this.http.setExecutor(Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "sim-http");
+            t.setDaemon(true);
+            return t;
+        }));
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> opts = new HashMap<>();
+        for (String a : args) {
+            int eq = a.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Argumento inválido (esperado chave=valor): " + a);
+            opts.put(a.substring(0, eq), a.substring(eq + 1));
+        }
+        int port = Integer.parseInt(opts.getOrDefault("port", "8080"));
+        int workers = Integer.parseInt(opts.getOrDefault("workers",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+
+        SimulationServer server = new SimulationServer(port, workers);
+        server.start();
+        System.out.println("Servidor em http://127.0.0.1:" + server.getPort() + "/sims (" + workers + " workers)");
+    }
+
+    public void start() {
+        http.start();
+    }
+
+    public void stop() {
+        http.stop(0);
+        scheduler.shutdown();
+    }
+
+    public int getPort() {
+        return http.getAddress().getPort();
+    }
+
+    /** Sessão registada com {@code id}, ou null (para os testes do pacote). */
+    SimulationSession getSession(int id) {
+        return sessions.get(id);
+    }
+
+    // -------------------- ROTEAMENTO --------------------
+
+    private void handle(HttpExchange ex) throws IOException {
+        try {
+            String[] parts = ex.getRequestURI().getPath().split("/");
+            // parts: "", "sims", [id], [ação]; o contexto "/sims" também apanha "/simsX"
+            if (parts.length < 2 || !parts[1].equals("sims")) {
+                send(ex, 404, "Caminho desconhecido: " + ex.getRequestURI().getPath());
+                return;
+            }
+            Map<String, String> q = parseQuery(ex.getRequestURI().getRawQuery());
+            String method = ex.getRequestMethod();
+
+            if (parts.length == 2) {
+                if (method.equals("POST")) create(ex, q);
+                else if (method.equals("GET")) list(ex);
+                else send(ex, 405, "Método não suportado.");
+                return;
+            }
+
+            SimulationSession s = sessions.get(Integer.parseInt(parts[2]));
+            if (s == null) {
+                send(ex, 404, "Simulação inexistente: " + parts[2]);
+                return;
+            }
+            String action = parts.length > 3 ? parts[3] : "";
+
+            switch (method + " " + action) {
+                case "GET " -> send(ex, 200, s.describe() + "\n"
+                        + s.getEngine().getStats().getLatestSnapshot().toTextLine());
+                case "DELETE " -> {
+                    s.pause();
+                    sessions.remove(s.getId());
+                    send(ex, 200, "removida id=" + s.getId());
+                }
+                case "POST run" -> {
+                    long steps = q.containsKey("steps") ? Long.parseLong(q.get("steps")) : -1;
+                    if (s.run(steps)) scheduler.enqueue(s);
+                    send(ex, 200, s.describe());
+                }
+                case "POST pause" -> {
+                    s.pause();
+                    send(ex, 200, s.describe());
+                }
+                case "POST step" -> {
+                    int n = Integer.parseInt(q.getOrDefault("n", "1"));
+                    int ran = s.stepNow(n);
+                    int status = (s.getState() == SimulationSession.State.FAILED) ? 500 : 200;
+                    send(ex, status, "ran=" + ran + " " + s.describe());
+                }
+                case "GET stream" -> stream(ex, s, Boolean.parseBoolean(q.getOrDefault("frames", "false")),
+                        Integer.parseInt(q.getOrDefault("max", "100")));
+                default -> send(ex, 404, "Ação desconhecida: " + method + " " + action);
+            }
+        } catch (NumberFormatException e) {
+            send(ex, 400, "Número inválido: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            send(ex, 400, e.getMessage());
+        } catch (IllegalStateException e) {
+            send(ex, 409, e.getMessage());
+        } catch (RuntimeException e) {
+            send(ex, 500, "Erro interno: " + e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            ex.close();
+        }
+    }
+
+    private void create(HttpExchange ex, Map<String, String> q) throws IOException {
+        WorldConfig def = WorldConfig.defaultConfig();
+        WorldConfig cfg = new WorldConfig(
+                Integer.parseInt(q.getOrDefault("width", String.valueOf(def.getWidth()))),
+                Integer.parseInt(q.getOrDefault("height", String.valueOf(def.getHeight()))),
+                Double.parseDouble(q.getOrDefault("wolves", String.valueOf(def.getWolfProb()))),
+                Double.parseDouble(q.getOrDefault("sheep", String.valueOf(def.getSheepProb()))),
+                Double.parseDouble(q.getOrDefault("plants", String.valueOf(def.getPlantProb()))));
+        long seed = q.containsKey("seed") ? Long.parseLong(q.get("seed")) : System.nanoTime();
+        long cpuBudget = Long.parseLong(q.getOrDefault("cpuMsPerSec", "0")) * 1_000_000L;
+
+        int id = nextId.getAndIncrement();
+        String engine = q.getOrDefault("engine", Engines.defaultName());
+        sessions.put(id, new SimulationSession(id, cfg, seed, engine, cpuBudget));
+        send(ex, 201, "id=" + id);
+    }
+
+    private void list(HttpExchange ex) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (SimulationSession s : sessions.values()) sb.append(s.describe()).append('\n');
+        send(ex, 200, sb.toString());
+    }
+
+    /** Envia uma entrada por cada passo novo observado (pode saltar passos se o cliente for lento). */
+    private void stream(HttpExchange ex, SimulationSession s, boolean frames, int max)
+            throws IOException, InterruptedException {
+        ex.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        ex.sendResponseHeaders(200, 0); // 0 = chunked
+        try (OutputStream out = ex.getResponseBody()) {
+            int seen = -1;
+            for (int sent = 0; sent < max; sent++) {
+                int step = s.awaitStepAfter(seen, STREAM_WAIT_MILLIS);
+                if (step == seen) break; // parou ou expirou
+                seen = step;
+
+                StringBuilder sb = new StringBuilder();
+                sb.append(s.describe()).append('\n');
+                sb.append(s.getEngine().getStats().getLatestSnapshot().toTextLine()).append('\n');
+                if (frames) for (String line : s.frameLines()) sb.append(line).append('\n');
+                out.write(sb.toString().getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            }
+        }
+    }
+
+    // -------------------- UTILITÁRIOS --------------------
+
+    private static void send(HttpExchange ex, int status, String body) throws IOException {
+        byte[] bytes = (body + "\n").getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        ex.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String raw) {
+        Map<String, String> m = new HashMap<>();
+        if (raw == null || raw.isEmpty()) return m;
+        for (String kv : raw.split("&")) {
+            int eq = kv.indexOf('=');
+            if (eq <= 0) continue;
+            m.put(URLDecoder.decode(kv.substring(0, eq), StandardCharsets.UTF_8),
+                    URLDecoder.decode(kv.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return m;
+    }
+}
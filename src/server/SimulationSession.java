@@ -0,0 +1,170 @@
+package server;
+
+import java.util.List;
+import java.util.Random;
+import model.Species;
+import sim.Engines;
+import sim.StepEngine;
+import world.World;
+import world.WorldConfig;
+
+/**
+ * Uma simulação alojada no servidor. Todo o acesso ao mundo/motor é feito com o monitor
+ * da sessão; as estatísticas publicadas ({@code getLatestSnapshot}) podem ler-se sem ele.
+ */
+final class SimulationSession {
+
+    enum State { PAUSED, RUNNING, FINISHED, FAILED }
+
+    private final int id;
+    private final WorldConfig config;
+    private final World world;
+    private final StepEngine engine;
+
+    /** Nanos de CPU por segundo de relógio que esta sessão pode gastar (0 = sem limite). */
+    private final long cpuBudgetNanosPerSec;
+
+    private State state = State.PAUSED;
+    private long remainingSteps;      // < 0 = sem limite
+    private boolean queued;           // já está na fila do escalonador
+    private String failure;           // mensagem do erro que a pôs em FAILED
+
+    // janela de 1 s para o orçamento de CPU
+    private long windowStartNanos;
+    private long cpuInWindowNanos;
+
+    SimulationSession(int id, WorldConfig config, long seed, String engineName, long cpuBudgetNanosPerSec) {
+        this.id = id;
+        this.config = config;
+        Random rng = new Random(seed);
+        this.world = World.fromConfig(config, rng);
+        this.engine = Engines.create(engineName, world, rng);
+        this.cpuBudgetNanosPerSec = cpuBudgetNanosPerSec;
+    }
+
+    int getId() { return id; }
+
+    StepEngine getEngine() { return engine; }
+
+    synchronized State getState() { return state; }
+
+    synchronized int getStepNumber() { return engine.getStepNumber(); }
+
+    /** Pede para correr {@code steps} passos (< 0 = até extinção). Devolve true se precisa de ir para a fila. */
+    synchronized boolean run(long steps) {
+        requireNotFailed();
+        if (state == State.FINISHED) return false;
+        remainingSteps = steps;
+        state = State.RUNNING;
+        if (queued) return false;
+        queued = true;
+        return true;
+    }
+
+    synchronized void pause() {
+        if (state == State.RUNNING) state = State.PAUSED;
+        notifyAll();
+    }
+
+    /** Passos síncronos (com a sessão em pausa). Devolve quantos correram; se um lançar, fica em FAILED. */
+    synchronized int stepNow(int n) {
+        if (state == State.RUNNING) throw new IllegalStateException("Simulação " + id + " está a correr.");
+        requireNotFailed();
+        int ran = 0;
+        try {
+            while (ran < n && !isExtinct()) {
+                engine.step();
+                ran++;
+            }
+        } catch (RuntimeException e) {
+            fail(e);   // como no escalonador: fica em FAILED com a mensagem
+            return ran;
+        }
+        if (isExtinct()) state = State.FINISHED;
+        notifyAll();
+        return ran;
+    }
+
+    /**
+     * Corre passos até esgotar o quantum (ou o pedido). Chamado pelo escalonador.
+     * Devolve true se a sessão deve voltar para a fila.
+     */
+    synchronized boolean runQuantum(long quantumNanos) {
+        if (state != State.RUNNING) {
+            queued = false;
+            return false;
+        }
+        long deadline = System.nanoTime() + quantumNanos;
+        while (remainingSteps != 0 && !isExtinct()) {
+            engine.step();
+            if (remainingSteps > 0) remainingSteps--;
+            if (System.nanoTime() >= deadline) break;
+        }
+        if (isExtinct()) state = State.FINISHED;
+        else if (remainingSteps == 0) state = State.PAUSED;
+        notifyAll();
+
+        if (state != State.RUNNING) {
+            queued = false;
+            return false;
+        }
+        return true;
+    }
+
+    /** Um quantum rebentou: a sessão sai da fila e fica em FAILED com a mensagem. */
+    synchronized void fail(Throwable cause) {
+        failure = cause.getMessage() != null ? cause.getMessage() : cause.toString();
+        state = State.FAILED;
+        queued = false;
+        notifyAll();
+    }
+
+    private void requireNotFailed() {
+        if (state == State.FAILED) throw new IllegalStateException("Simulação " + id + " falhou: " + failure);
+    }
+
+    /** Contabiliza CPU gasta num quantum; devolve os nanos a esperar antes de voltar à fila (0 = já). */
+    synchronized long chargeCpu(long cpuNanos) {
+        if (cpuBudgetNanosPerSec <= 0) return 0;
+        long now = System.nanoTime();
+        if (now - windowStartNanos >= 1_000_000_000L) {
+            windowStartNanos = now;
+            cpuInWindowNanos = 0;
+        }
+        cpuInWindowNanos += cpuNanos;
+        if (cpuInWindowNanos < cpuBudgetNanosPerSec) return 0;
+        return Math.max(0, windowStartNanos + 1_000_000_000L - now);
+    }
+
+    /** Espera até o passo ser maior que {@code afterStep}, a sessão parar, ou o tempo acabar. */
+    synchronized int awaitStepAfter(int afterStep, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (engine.getStepNumber() <= afterStep && state == State.RUNNING) {
+            long left = deadline - System.currentTimeMillis();
+            if (left <= 0) break;
+            wait(left);
+        }
+        return engine.getStepNumber();
+    }
+
+    synchronized String describe() {
+        return "id=" + id
+                + " state=" + state
+                + " size=" + config.getWidth() + "x" + config.getHeight()
+                + " step=" + engine.getStepNumber()
+                + " plants=" + world.getPopulation(Species.PLANT)
+                + " sheep=" + world.getPopulation(Species.SHEEP)
+                + " wolves=" + world.getPopulation(Species.WOLF)
+                + (failure != null ? " error=" + failure : "");
+    }
+
+    synchronized List<String> frameLines() {
+        return world.toTextLines();
+    }
+
+    private boolean isExtinct() {
+        return world.getPopulation(Species.PLANT) == 0
+                || world.getPopulation(Species.SHEEP) == 0
+                || world.getPopulation(Species.WOLF) == 0;
+    }
+}
@@ -0,0 +1,93 @@
+package sim;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * Mede os bytes alocados pela thread do motor, por passo e por fase, com os contadores de
+ * alocação por thread da JVM ({@code com.sun.management.ThreadMXBean}). Desligado não custa nada.
+ */
+public final class AllocationMeter {
+
+    public enum Phase { SWEEP, MOVE, REPRODUCE, LISTENERS }
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private final com.sun.management.ThreadMXBean threads;
+
+    private final long[] phaseBytes = new long[PHASES.length];
+    private long totalBytes;
+    private long lastStepBytes;
+    private long steps;
+    private long organismSteps;
+
+    private long stepStart;
+    private long mark;
+
+    AllocationMeter() {
+        if (!isSupported()) throw new IllegalStateException("JVM sem contadores de alocação por thread.");
+        this.threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    public static boolean isSupported() {
+        return ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).isThreadAllocatedMemorySupported();
+    }
+
+    // ---------- chamadas do motor ----------
+
+    void beginStep(int population) {
+        stepStart = threads.getCurrentThreadAllocatedBytes();
+        mark = stepStart;
+        organismSteps += population;
+    }
+
+    void endPhase(Phase p) {
+        long now = threads.getCurrentThreadAllocatedBytes();
+        phaseBytes[p.ordinal()] += now - mark;
+        mark = now;
+    }
+
+    void endStep() {
+        lastStepBytes = mark - stepStart;
+        totalBytes += lastStepBytes;
+        steps++;
+    }
+
+    // ---------- leitura ----------
+
+    public long getSteps() { return steps; }
+    public long getTotalBytes() { return totalBytes; }
+    public long getLastStepBytes() { return lastStepBytes; }
+    public long getPhaseBytes(Phase p) { return phaseBytes[p.ordinal()]; }
+
+    public double getBytesPerStep() {
+        return steps == 0 ? 0.0 : (double) totalBytes / steps;
+    }
+
+    /** Bytes por organismo vivo no início de cada passo, em média. */
+    public double getBytesPerOrganismStep() {
+        return organismSteps == 0 ? 0.0 : (double) totalBytes / organismSteps;
+    }
+
+    public void reset() {
+        Arrays.fill(phaseBytes, 0);
+        totalBytes = 0;
+        lastStepBytes = 0;
+        steps = 0;
+        organismSteps = 0;
+    }
+
+    /** Uma linha "chave=valor" para a saída headless. */
+    public String toTextLine() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("steps=").append(steps)
+                .append(" bytesPerStep=").append(Math.round(getBytesPerStep()))
+                .append(" bytesPerOrganismStep=").append(String.format("%.1f", getBytesPerOrganismStep()));
+        for (Phase p : PHASES) {
+            sb.append(' ').append(p.name().toLowerCase()).append('=').append(phaseBytes[p.ordinal()]);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,284 @@
+package sim;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
+import model.Species;
+import rng.RandomStreams;
+import world.World;
+import world.WorldConfig;
+
+/**
+ * Procura automática de configurações em que lobos, ovelhas e plantas coexistem muito tempo.
+ * Amostra candidatos (probabilidades iniciais e parâmetros numéricos da {@link SpeciesTable}), corre-os
+ * em paralelo com orçamentos pequenos de passos e, por successive halving (Hyperband, com vários
+ * brackets), só promove os que sobrevivem mais tempo a orçamentos maiores. Os mundos só nascem na
+ * 1.ª ronda de cada candidato; as corridas promovidas continuam de onde pararam enquanto a ronda couber
+ * em {@link #RETAINED_CELLS} células, e acima disso são largadas no fim de cada réplica e repetidas do
+ * passo 0 na promoção. Cada réplica tem semente própria: o resultado não depende do nº de threads nem
+ * de a corrida ter sido retida ou repetida.
+ */
+public final class CoexistenceSearch {
+
+    /** Máximo de células (candidatos vivos × réplicas × largura × altura) mantidas entre rondas. */
+    public static final long RETAINED_CELLS = 1L << 22;
+
+    private final int width;
+    private final int height;
+    private final int replicates;
+    private final int minBudget;
+    private final int maxBudget;
+    private final int eta;
+    private final long seed;
+    private final String engineName;
+    private final LongAdder stepsSimulated = new LongAdder();
+
+    public CoexistenceSearch(int size, int replicates, int minBudget, int maxBudget, int eta, long seed) {
+        this(size, size, replicates, minBudget, maxBudget, eta, seed, Engines.defaultName());
+    }
+
+    public CoexistenceSearch(int width, int height, int replicates, int minBudget, int maxBudget, int eta,
+                             long seed, String engineName) {
+        if (width <= 0 || height <= 0 || replicates <= 0) {
+            throw new IllegalArgumentException("width, height e replicates devem ser > 0");
+        }
+        if (minBudget <= 0 || maxBudget < minBudget) throw new IllegalArgumentException("Orçamentos inválidos.");
+        if (eta < 2) throw new IllegalArgumentException("eta deve ser >= 2");
+        this.width = width;
+        this.height = height;
+        this.replicates = replicates;
+        this.minBudget = minBudget;
+        this.maxBudget = maxBudget;
+        this.eta = eta;
+        this.seed = seed;
+        this.engineName = engineName;
+    }
+
+    /**
+     * Corre {@code brackets} brackets de Hyperband (1 = successive halving simples); o mais exploratório
+     * começa com {@code candidates} candidatos ao orçamento mínimo. Devolve os finalistas de todos os
+     * brackets, do melhor para o pior.
+     */
+    public List<Candidate> run(int candidates, int brackets) {
+        if (candidates <= 0 || brackets <= 0) throw new IllegalArgumentException("candidates e brackets devem ser > 0");
+        int sMax = 0;
+        while ((long) minBudget * pow(eta, sMax + 1) <= maxBudget) sMax++;
+
+        Random sampler = new Random(seed);
+        List<Candidate> finalists = new ArrayList<>();
+        int nextId = 0;
+        for (int s = sMax; s >= Math.max(0, sMax - brackets + 1); s--) {
+            int n = (int) Math.ceil((double) candidates * (sMax + 1) / (s + 1) / pow(eta, sMax - s));
+            List<Candidate> pool = new ArrayList<>();
+            for (int i = 0; i < n; i++) pool.add(sample(nextId++, sampler));
+            finalists.addAll(successiveHalving(pool, s));
+        }
+        finalists.sort(BY_SCORE);
+        return finalists;
+    }
+
+    /** Um bracket: {@code rounds + 1} rondas, orçamento × eta e candidatos ÷ eta em cada uma. */
+    private List<Candidate> successiveHalving(List<Candidate> pool, int rounds) {
+        List<Candidate> live = pool;
+        for (int i = 0; i <= rounds; i++) {
+            int budget = (int) Math.min(maxBudget, (long) maxBudget / pow(eta, rounds - i));
+            budget = Math.max(budget, minBudget);
+            final int b = budget;
+            final boolean retain = i < rounds && (long) live.size() * replicates * width * height <= RETAINED_CELLS;
+            live.parallelStream().forEach(c -> advance(c, b, retain));
+            live.sort(BY_SCORE);
+            if (i == rounds) break;
+            int keep = Math.max(1, live.size() / eta);
+            for (Candidate dropped : live.subList(keep, live.size())) dropped.release();
+            live = new ArrayList<>(live.subList(0, keep));
+        }
+        for (Candidate c : live) c.release();
+        return live;
+    }
+
+    /** Leva as réplicas vivas até {@code budget}; sem {@code retain}, cada mundo é largado logo a seguir. */
+    private void advance(Candidate c, int budget, boolean retain) {
+        for (int r = 0; r < replicates; r++) {
+            if (c.extinct[r]) continue;
+            StepEngine e = c.runs[r];
+            if (e == null) e = c.runs[r] = newRun(c, r);   // 1.ª ronda, ou repetição desde o passo 0
+            if (e.getStepNumber() < budget) {
+                int ran = e.stepN(budget - e.getStepNumber(), StopCondition.ANY_EXTINCT);
+                stepsSimulated.add(ran);
+            }
+            c.survival[r] = e.getStepNumber();
+            if (StopCondition.ANY_EXTINCT.shouldStop(e)) c.extinct[r] = true;
+            if (c.extinct[r] || !retain) c.runs[r] = null;
+        }
+        c.budget = budget;
+    }
+
+    // -------------------- AMOSTRAGEM --------------------
+
+    private Candidate sample(int id, Random r) {
+        double w = uniform(r, 0.005, 0.10);
+        double o = uniform(r, 0.02, 0.30);
+        double p = uniform(r, 0.10, 0.80);
+        double sum = w + o + p;
+        if (sum > 0.95) {
+            w *= 0.95 / sum;
+            o *= 0.95 / sum;
+            p *= 0.95 / sum;
+        }
+        WorldConfig cfg = new WorldConfig(width, height, w, o, p);
+
+        SpeciesTable t = SpeciesTable.standard();
+        t.setReproProbability(Species.PLANT, uniform(r, 0.02, 0.40));
+        t.setReproProbability(Species.SHEEP, uniform(r, 0.05, 0.60));
+        t.setReproProbability(Species.WOLF, uniform(r, 0.05, 0.60));
+        t.setMinReproAge(Species.SHEEP, 1 + r.nextInt(10));
+        t.setMinReproAge(Species.WOLF, 1 + r.nextInt(10));
+        t.setMinReproEnergy(Species.SHEEP, 2 + r.nextInt(29));
+        t.setMinReproEnergy(Species.WOLF, 2 + r.nextInt(29));
+        t.setEnergyGain(Species.SHEEP, Species.PLANT, 1 + r.nextInt(12));
+        t.setEnergyGain(Species.WOLF, Species.SHEEP, 2 + r.nextInt(24));
+        t.setHunting(Species.WOLF, Species.SHEEP, r.nextInt(9));
+
+        return new Candidate(id, cfg, t, replicates);
+    }
+
+    /** Réplica {@code k} do candidato, no fluxo {@code k} dos {@link RandomStreams} do candidato. */
+    private StepEngine newRun(Candidate c, int k) {
+        RandomGenerator rng = RandomStreams.create(RandomStreams.LEGACY, seed * 31 + c.id, replicates).get(k);
+        return Engines.create(engineName, World.fromConfig(c.config, rng), rng, c.table);
+    }
+
+    private static double uniform(Random r, double lo, double hi) {
+        return lo + (hi - lo) * r.nextDouble();
+    }
+
+    private static long pow(int base, int exp) {
+        long v = 1;
+        for (int i = 0; i < exp; i++) v *= base;
+        return v;
+    }
+
+    /** Total de passos simulados (todas as réplicas, todos os brackets). */
+    public long getStepsSimulated() {
+        return stepsSimulated.sum();
+    }
+
+    private static final Comparator<Candidate> BY_SCORE = Comparator
+            .comparingDouble(Candidate::getMeanSurvival).reversed()
+            .thenComparing(Comparator.comparingInt(Candidate::getMinSurvival).reversed())
+            .thenComparingInt(Candidate::getId);
+
+    // -------------------- CANDIDATO --------------------
+
+    /** Configuração candidata e distribuição de sobrevivência (passos até à 1.ª extinção) das réplicas. */
+    public static final class Candidate {
+        private final int id;
+        private final WorldConfig config;
+        private final SpeciesTable table;
+        private final StepEngine[] runs;
+        private final int[] survival;
+        private final boolean[] extinct;
+        private int budget;
+
+        Candidate(int id, WorldConfig config, SpeciesTable table, int replicates) {
+            this.id = id;
+            this.config = config;
+            this.table = table;
+            this.runs = new StepEngine[replicates];
+            this.survival = new int[replicates];
+            this.extinct = new boolean[replicates];
+        }
+
+        /** Liberta os mundos das réplicas (o candidato já não vai ser promovido). */
+        void release() {
+            Arrays.fill(runs, null);
+        }
+
+        public int getId() { return id; }
+        public WorldConfig getConfig() { return config; }
+        public SpeciesTable getTable() { return table; }
+        public int getBudget() { return budget; }
+        public int[] getSurvival() { return survival.clone(); }
+
+        public double getMeanSurvival() {
+            long sum = 0;
+            for (int s : survival) sum += s;
+            return (double) sum / survival.length;
+        }
+
+        public int getMinSurvival() {
+            return Arrays.stream(survival).min().orElse(0);
+        }
+
+        /** Fração de réplicas com as três espécies vivas no fim do orçamento. */
+        public double getCoexistingFraction() {
+            int alive = 0;
+            for (boolean e : extinct) if (!e) alive++;
+            return (double) alive / extinct.length;
+        }
+
+        public String toTextLine() {
+            int[] sorted = getSurvival();
+            Arrays.sort(sorted);
+            return String.format(Locale.ROOT,
+                    "id=%d budget=%d meanSurvival=%.1f min=%d median=%d max=%d coexisting=%.2f "
+                            + "wolves=%.3f sheep=%.3f plants=%.3f "
+                            + "plantRepro=%.3f sheepRepro=%.3f wolfRepro=%.3f sheepMinAge=%d wolfMinAge=%d "
+                            + "sheepMinEnergy=%d wolfMinEnergy=%d sheepGain=%d wolfGain=%d huntRadius=%d",
+                    id, budget, getMeanSurvival(), sorted[0], sorted[sorted.length / 2], sorted[sorted.length - 1],
+                    getCoexistingFraction(),
+                    config.getWolfProb(), config.getSheepProb(), config.getPlantProb(),
+                    table.reproProbability(Species.PLANT), table.reproProbability(Species.SHEEP),
+                    table.reproProbability(Species.WOLF),
+                    table.minReproAge(Species.SHEEP), table.minReproAge(Species.WOLF),
+                    table.minReproEnergy(Species.SHEEP), table.minReproEnergy(Species.WOLF),
+                    table.energyGain(Species.SHEEP, Species.PLANT), table.energyGain(Species.WOLF, Species.SHEEP),
+                    table.huntRadius(Species.WOLF));
+        }
+
+        /** Sobrevivência de cada réplica, por ordem. */
+        public String survivalLine() {
+            return "id=" + id + " survival=" + Arrays.toString(survival);
+        }
+    }
+
+    // -------------------- LINHA DE COMANDOS --------------------
+
+    /**
+     * Argumentos "chave=valor": size (ou width e height), replicates, candidates, brackets, minSteps,
+     * maxSteps, eta, top, seed e engine.
+     */
+    public static void main(String[] args) {
+        Map<String, String> opts = HeadlessRunner.parseArgs(args);
+        int size = HeadlessRunner.intOpt(opts, "size", 40);
+        CoexistenceSearch search = new CoexistenceSearch(
+                HeadlessRunner.intOpt(opts, "width", size),
+                HeadlessRunner.intOpt(opts, "height", size),
+                HeadlessRunner.intOpt(opts, "replicates", 4),
+                HeadlessRunner.intOpt(opts, "minSteps", 30),
+                HeadlessRunner.intOpt(opts, "maxSteps", 2430),
+                HeadlessRunner.intOpt(opts, "eta", 3),
+                Long.parseLong(opts.getOrDefault("seed", "1")),
+                opts.getOrDefault("engine", Engines.defaultName()));
+        int candidates = HeadlessRunner.intOpt(opts, "candidates", 81);
+        int brackets = HeadlessRunner.intOpt(opts, "brackets", 3);
+        int top = HeadlessRunner.intOpt(opts, "top", 5);
+
+        long t0 = System.nanoTime();
+        List<Candidate> best = search.run(candidates, brackets);
+        double secs = (System.nanoTime() - t0) / 1e9;
+
+        for (int i = 0; i < Math.min(top, best.size()); i++) {
+            System.out.println("rank=" + (i + 1) + " " + best.get(i).toTextLine());
+            System.out.println("  " + best.get(i).survivalLine());
+        }
+        System.out.printf(Locale.ROOT, "search finalists=%d stepsSimulated=%d seconds=%.2f%n",
+                best.size(), search.getStepsSimulated(), secs);
+    }
+}
@@ -0,0 +1,136 @@
+package sim;
+
+/**
+ * Deteta mundos degenerados: estados exatamente repetidos (pelo hash Zobrist de {@code World})
+ * ou populações paradas durante uma janela inteira de passos. O(janela) por passo, sem alocações.
+ *
+ * <p>O hash só vê (célula, espécie, faixa etária), não a energia: um animal que volte à mesma célula
+ * dentro da mesma faixa repete o hash sem que o mundo esteja num ciclo. Por isso uma repetição com
+ * período L só é candidata; o ciclo só fica registado se cada um dos {@code confirmSteps} passos
+ * seguintes repetir também o estado de L passos antes.</p>
+ */
+public final class CycleDetector {
+
+    public enum Status { RUNNING, CYCLE, STALLED }
+
+    public static final int DEFAULT_WINDOW = 256;
+    public static final int DEFAULT_CONFIRM_STEPS = 32;
+
+    private final int window;
+    private final int confirmSteps;
+    private final long[] hashes;
+    private final int[] steps;
+    private int size;
+    private int head; // próxima posição a escrever no anel
+
+    private int candidateLength;   // período da repetição por confirmar (0 = nenhuma)
+    private int confirmed;
+
+    private int lastPlants;
+    private int lastSheep;
+    private int lastWolves;
+    private int stalledSince = -1;
+
+    private Status status = Status.RUNNING;
+    private int cycleLength;
+
+    public CycleDetector() {
+        this(DEFAULT_WINDOW);
+    }
+
+    public CycleDetector(int window) {
+        this(window, DEFAULT_CONFIRM_STEPS);
+    }
+
+    public CycleDetector(int window, int confirmSteps) {
+        if (window < 2) throw new IllegalArgumentException("Janela inválida: " + window);
+        if (confirmSteps < 1) throw new IllegalArgumentException("Confirmação inválida: " + confirmSteps);
+        this.window = window;
+        this.confirmSteps = confirmSteps;
+        this.hashes = new long[window];
+        this.steps = new int[window];
+    }
+
+    /** Regista o estado no fim do passo {@code step}; devolve o estado da deteção. */
+    public Status observe(int step, long stateHash, int plants, int sheep, int wolves) {
+        if (status != Status.RUNNING) return status;
+
+        // repetição candidata: este passo tem de repetir o de candidateLength passos antes
+        if (candidateLength > 0) {
+            if (repeats(step, stateHash, candidateLength)) {
+                if (++confirmed >= confirmSteps) {
+                    status = Status.CYCLE;
+                    cycleLength = candidateLength;
+                    return status;
+                }
+            } else {
+                candidateLength = 0;
+            }
+        }
+
+        // repetição exata dentro da janela (do mais recente para o mais antigo)
+        if (candidateLength == 0) {
+            for (int i = 1; i <= size; i++) {
+                int idx = Math.floorMod(head - i, window);
+                if (hashes[idx] == stateHash) {
+                    candidateLength = step - steps[idx];
+                    confirmed = 0;
+                    break;
+                }
+            }
+        }
+        hashes[head] = stateHash;
+        steps[head] = step;
+        head = (head + 1) % window;
+        if (size < window) size++;
+
+        // populações iguais durante a janela inteira
+        if (stalledSince < 0 || plants != lastPlants || sheep != lastSheep || wolves != lastWolves) {
+            lastPlants = plants;
+            lastSheep = sheep;
+            lastWolves = wolves;
+            stalledSince = step;
+        } else if (step - stalledSince >= window) {
+            status = Status.STALLED;
+        }
+        return status;
+    }
+
+    /** O estado registado {@code length} passos antes de {@code step} tem este hash. */
+    private boolean repeats(int step, long stateHash, int length) {
+        if (length > size) return false;
+        int idx = Math.floorMod(head - length, window);
+        return steps[idx] == step - length && hashes[idx] == stateHash;
+    }
+
+    public Status getStatus() { return status; }
+
+    /** Comprimento do ciclo detetado (só faz sentido com {@link Status#CYCLE}). */
+    public int getCycleLength() { return cycleLength; }
+
+    public int getWindow() { return window; }
+
+    public int getConfirmSteps() { return confirmSteps; }
+
+    public void reset() {
+        size = 0;
+        head = 0;
+        candidateLength = 0;
+        confirmed = 0;
+        stalledSince = -1;
+        status = Status.RUNNING;
+        cycleLength = 0;
+    }
+
+    /** Mensagem para a consola; vazia se nada foi detetado. */
+    public String describe() {
+        switch (status) {
+            case CYCLE:
+                return "Estado repetido: ciclo de " + cycleLength + " passo(s).";
+            case STALLED:
+                return "Populações paradas há " + window + " passos.";
+            default:
+                return "";
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package sim;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.IntStream;
+import model.Species;
+import world.World;
+
+/**
+ * Tabelas de somas acumuladas (integral images) por espécie, reconstruídas no fim de cada passo,
+ * mais uma camada com as mortes por fome acumuladas por célula. Com elas, o total de qualquer
+ * retângulo é O(1). É opcional: liga-se com {@code engine.addListener(new DensityTables(world))}.
+ */
+public final class DensityTables implements StepListener {
+
+    /** Abaixo disto a reconstrução corre em série. */
+    private static final int PARALLEL_CELLS = 1 << 16;
+
+    private static final int LAYERS = Species.values().length + 1;
+    private static final int STARVATION = LAYERS - 1;
+
+    private final World world;
+    private final int width;
+    private final int height;
+    private final int stride; // width + 1
+
+    private final byte[] codes;
+    private final int[] starved;   // mortes por fome por célula, acumuladas
+    private final int[][] sat;     // [camada][(y+1)*stride + (x+1)]
+    private volatile int builtStep = -1;
+
+    public DensityTables(World world) {
+        this.world = world;
+        this.width = world.getWidth();
+        this.height = world.getHeight();
+        this.stride = width + 1;
+        this.codes = new byte[width * height];
+        this.starved = new int[width * height];
+        this.sat = new int[LAYERS][stride * (height + 1)];
+        rebuild(0);
+    }
+
+    @Override
+    public void onEvents(int step, EventBatch batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            if (batch.type(i) == EventType.DEATH_STARVATION) starved[batch.fromCell(i)]++;
+        }
+    }
+
+    @Override
+    public void onStepEnd(int step) {
+        rebuild(step);
+    }
+
+    /** Reconstrói as tabelas a partir da grelha: somas por linha em paralelo, depois por colunas. */
+    public void rebuild(int step) {
+        world.copySpeciesCodes(codes);
+
+        IntStream rows = IntStream.range(0, height);
+        if ((long) width * height >= PARALLEL_CELLS) rows = rows.parallel();
+        rows.forEach(this::prefixRow);
+
+        int strips = Math.max(1, Math.min(width, Runtime.getRuntime().availableProcessors() * 4));
+        IntStream cols = IntStream.range(0, strips);
+        if ((long) width * height >= PARALLEL_CELLS) cols = cols.parallel();
+        cols.forEach(k -> accumulateColumns(k * width / strips, (k + 1) * width / strips));
+
+        builtStep = step;
+    }
+
+    private void prefixRow(int y) {
+        int base = (y + 1) * stride;
+        int src = y * width;
+        int[] run = new int[LAYERS];
+        for (int x = 0; x < width; x++) {
+            int code = codes[src + x];
+            if (code != 0) run[code - 1]++;
+            run[STARVATION] += starved[src + x];
+            for (int l = 0; l < LAYERS; l++) sat[l][base + x + 1] = run[l];
+        }
+    }
+
+    private void accumulateColumns(int x0, int x1) {
+        for (int l = 0; l < LAYERS; l++) {
+            int[] t = sat[l];
+            for (int y = 2; y <= height; y++) {
+                int row = y * stride;
+                int above = row - stride;
+                for (int x = x0 + 1; x <= x1; x++) t[row + x] += t[above + x];
+            }
+        }
+    }
+
+    // -------------------- CONSULTAS O(1) --------------------
+
+    /** Passo a que correspondem as tabelas (-1 antes da primeira construção). */
+    public int getBuiltStep() { return builtStep; }
+
+    /** Nº de organismos da espécie no retângulo [x0..x1] x [y0..y1] (inclusive, cortado à grelha). */
+    public int count(Species s, int x0, int y0, int x1, int y1) {
+        return rect(sat[s.ordinal()], x0, y0, x1, y1);
+    }
+
+    /** Mortes por fome acumuladas no retângulo desde que as tabelas foram criadas. */
+    public int starvations(int x0, int y0, int x1, int y1) {
+        return rect(sat[STARVATION], x0, y0, x1, y1);
+    }
+
+    /** Fração de células do retângulo ocupadas pela espécie. */
+    public double density(Species s, int x0, int y0, int x1, int y1) {
+        int cx0 = Math.max(0, x0), cy0 = Math.max(0, y0);
+        int cx1 = Math.min(width - 1, x1), cy1 = Math.min(height - 1, y1);
+        if (cx0 > cx1 || cy0 > cy1) return 0.0;
+        long area = (long) (cx1 - cx0 + 1) * (cy1 - cy0 + 1);
+        return count(s, cx0, cy0, cx1, cy1) / (double) area;
+    }
+
+    private int rect(int[] t, int x0, int y0, int x1, int y1) {
+        x0 = Math.max(0, x0);
+        y0 = Math.max(0, y0);
+        x1 = Math.min(width - 1, x1);
+        y1 = Math.min(height - 1, y1);
+        if (x0 > x1 || y0 > y1) return 0;
+        int a = y0 * stride + x0;
+        int b = y0 * stride + x1 + 1;
+        int c = (y1 + 1) * stride + x0;
+        int d = (y1 + 1) * stride + x1 + 1;
+        return t[d] - t[b] - t[c] + t[a];
+    }
+
+    // -------------------- EXPORTAÇÃO --------------------
+
+    /**
+     * Grava um mapa de calor em CSV: uma linha por bloco de {@code block}x{@code block} células
+     * com as contagens por espécie e as mortes por fome (cada valor é uma consulta O(1)).
+     */
+    public void writeHeatmapCsv(Path file, int block) throws IOException {
+        if (block <= 0) throw new IllegalArgumentException("Bloco inválido: " + block);
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            out.write("step,blockX,blockY,x0,y0");
+            for (Species s : Species.values()) out.write("," + s.name().toLowerCase());
+            out.write(",starved");
+            out.newLine();
+
+            for (int y0 = 0; y0 < height; y0 += block) {
+                for (int x0 = 0; x0 < width; x0 += block) {
+                    int x1 = x0 + block - 1;
+                    int y1 = y0 + block - 1;
+                    StringBuilder sb = new StringBuilder();
+                    sb.append(builtStep).append(',').append(x0 / block).append(',').append(y0 / block)
+                            .append(',').append(x0).append(',').append(y0);
+                    for (Species s : Species.values()) sb.append(',').append(count(s, x0, y0, x1, y1));
+                    sb.append(',').append(starvations(x0, y0, x1, y1));
+                    out.write(sb.toString());
+                    out.newLine();
+                }
+            }
+        }
+    }
+}
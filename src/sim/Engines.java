@@ -0,0 +1,59 @@
+package sim;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.random.RandomGenerator;
+import world.World;
+
+/** Registo dos motores disponíveis, escolhidos por nome em tempo de execução. */
+public final class Engines {
+
+    /** Cria um motor sobre um mundo já inicializado. */
+    @FunctionalInterface
+    public interface Factory {
+        StepEngine create(World world, RandomGenerator rng, SpeciesTable table);
+    }
+
+    public static final String REFERENCE = "reference";
+
+    /** Plantas atualizadas em lote a cada {@link PhaseSchedule#DEFAULT_SLOW_PERIOD} passos (aproximação). */
+    public static final String MULTIRATE = "multirate";
+
+    /** Propriedade de sistema com o motor por omissão ({@code -Dsim.engine=nome}). */
+    public static final String PROPERTY = "sim.engine";
+
+    private static final Map<String, Factory> FACTORIES = new LinkedHashMap<>();
+
+    static {
+        register(REFERENCE, SimulationEngine::new);
+        register(MULTIRATE, (world, rng, table) -> new SimulationEngine(world, rng, table,
+                PhaseSchedule.multiRate(PhaseSchedule.DEFAULT_SLOW_PERIOD)));
+    }
+
+    private Engines() {}
+
+    public static synchronized void register(String name, Factory factory) {
+        if (FACTORIES.containsKey(name)) throw new IllegalArgumentException("Motor já registado: " + name);
+        FACTORIES.put(name, factory);
+    }
+
+    public static synchronized Set<String> names() {
+        return Set.copyOf(FACTORIES.keySet());
+    }
+
+    public static synchronized StepEngine create(String name, World world, RandomGenerator rng, SpeciesTable table) {
+        Factory f = FACTORIES.get(name);
+        if (f == null) throw new IllegalArgumentException("Motor desconhecido: " + name + " (disponíveis: " + FACTORIES.keySet() + ")");
+        return f.create(world, rng, table);
+    }
+
+    public static StepEngine create(String name, World world, RandomGenerator rng) {
+        return create(name, world, rng, SpeciesTable.standard());
+    }
+
+    /** Nome escolhido pela propriedade {@value #PROPERTY}, ou a referência. */
+    public static String defaultName() {
+        return System.getProperty(PROPERTY, REFERENCE);
+    }
+}
@@ -0,0 +1,176 @@
+package sim;
+
+import java.util.Map;
+import java.util.Random;
+import world.World;
+import world.WorldConfig;
+
+/**
+ * Teste diferencial: corre um motor candidato lado a lado com a referência, com a mesma semente e
+ * configuração, e compara grelha (espécie, idade exata e energia de cada célula), hash de estado e
+ * estatísticas passo a passo. Pára na primeira
+ * divergência e reporta-a; no fim mostra o débito de cada motor.
+ *
+ * Argumentos "chave=valor": engine (candidato), reference (por omissão "reference"),
+ * seeds, steps, maxSize e seed0 (primeira semente).
+ */
+public final class EquivalenceHarness {
+
+    /** Resultado de uma comparação; {@code divergence} é null se tudo bateu certo. */
+    public static final class Report {
+        public final int runs;
+        public final long steps;
+        public final String divergence;
+        public final double referenceStepsPerSec;
+        public final double candidateStepsPerSec;
+        public final double referenceUpdatesPerSec;
+        public final double candidateUpdatesPerSec;
+
+        Report(int runs, long steps, String divergence, long refNanos, long candNanos, long organismSteps) {
+            this.runs = runs;
+            this.steps = steps;
+            this.divergence = divergence;
+            this.referenceStepsPerSec = steps / Math.max(refNanos / 1e9, 1e-9);
+            this.candidateStepsPerSec = steps / Math.max(candNanos / 1e9, 1e-9);
+            this.referenceUpdatesPerSec = organismSteps / Math.max(refNanos / 1e9, 1e-9);
+            this.candidateUpdatesPerSec = organismSteps / Math.max(candNanos / 1e9, 1e-9);
+        }
+
+        public boolean isEquivalent() { return divergence == null; }
+    }
+
+    private EquivalenceHarness() {}
+
+    public static void main(String[] args) {
+        Map<String, String> opts = HeadlessRunner.parseArgs(args);
+        String reference = opts.getOrDefault("reference", Engines.REFERENCE);
+        String candidate = opts.getOrDefault("engine", Engines.REFERENCE);
+        int seeds = HeadlessRunner.intOpt(opts, "seeds", 1000);
+        int steps = HeadlessRunner.intOpt(opts, "steps", 200);
+        int maxSize = HeadlessRunner.intOpt(opts, "maxSize", 40);
+        long seed0 = Long.parseLong(opts.getOrDefault("seed0", "0"));
+
+        Report r = compare(reference, candidate, seed0, seeds, steps, maxSize);
+
+        System.out.println("reference=" + reference + " candidate=" + candidate
+                + " runs=" + r.runs + " steps=" + r.steps);
+        System.out.println(r.isEquivalent() ? "result=EQUIVALENT" : "result=DIVERGED " + r.divergence);
+        System.out.printf("throughput %s stepsPerSec=%.1f organismUpdatesPerSec=%.0f%n",
+                reference, r.referenceStepsPerSec, r.referenceUpdatesPerSec);
+        System.out.printf("throughput %s stepsPerSec=%.1f organismUpdatesPerSec=%.0f%n",
+                candidate, r.candidateStepsPerSec, r.candidateUpdatesPerSec);
+
+        if (!r.isEquivalent()) System.exit(1);
+    }
+
+    /** Compara os dois motores em {@code seeds} corridas aleatórias de até {@code steps} passos. */
+    public static Report compare(String reference, String candidate, long seed0, int seeds, int steps, int maxSize) {
+        long refNanos = 0;
+        long candNanos = 0;
+        long totalSteps = 0;
+        long organismSteps = 0;
+        int runs = 0;
+
+        for (long seed = seed0; seed < seed0 + seeds; seed++) {
+            WorldConfig cfg = randomConfig(new Random(seed ^ 0x9E3779B97F4A7C15L), maxSize);
+
+            Random rngA = new Random(seed);
+            StepEngine a = Engines.create(reference, World.fromConfig(cfg, rngA), rngA);
+            Random rngB = new Random(seed);
+            StepEngine b = Engines.create(candidate, World.fromConfig(cfg, rngB), rngB);
+            runs++;
+
+            int cells = cfg.getWidth() * cfg.getHeight();
+            Cells cellsA = new Cells(cells);
+            Cells cellsB = new Cells(cells);
+
+            String diff = firstDifference(a, b, cellsA, cellsB);
+            if (diff != null) return divergence(runs, totalSteps, seed, cfg, 0, diff, refNanos, candNanos, organismSteps);
+
+            for (int s = 0; s < steps; s++) {
+                if (StopCondition.ANY_EXTINCT.shouldStop(a)) break;
+                organismSteps += a.getWorld().getOrganismsView().size();
+
+                long t0 = System.nanoTime();
+                a.step();
+                long t1 = System.nanoTime();
+                b.step();
+                long t2 = System.nanoTime();
+                refNanos += t1 - t0;
+                candNanos += t2 - t1;
+                totalSteps++;
+
+                diff = firstDifference(a, b, cellsA, cellsB);
+                if (diff != null) {
+                    return divergence(runs, totalSteps, seed, cfg, a.getStepNumber(), diff, refNanos, candNanos, organismSteps);
+                }
+            }
+        }
+        return new Report(runs, totalSteps, null, refNanos, candNanos, organismSteps);
+    }
+
+    private static Report divergence(int runs, long steps, long seed, WorldConfig cfg, int step, String diff,
+                                     long refNanos, long candNanos, long organismSteps) {
+        String where = "seed=" + seed
+                + " config=" + cfg.getWidth() + "x" + cfg.getHeight()
+                + "/W=" + cfg.getWolfProb() + "/O=" + cfg.getSheepProb() + "/P=" + cfg.getPlantProb()
+                + " step=" + step + " " + diff;
+        return new Report(runs, steps, where, refNanos, candNanos, organismSteps);
+    }
+
+    /** Buffers por célula de um dos mundos, reutilizados em todos os passos da corrida. */
+    private static final class Cells {
+        final byte[] codes;
+        final int[] ages;
+        final int[] energies;
+
+        Cells(int cells) {
+            codes = new byte[cells];
+            ages = new int[cells];
+            energies = new int[cells];
+        }
+
+        void capture(World w) {
+            w.copySpeciesCodes(codes);
+            w.copyAgesAndEnergy(ages, energies);
+        }
+    }
+
+    /** Primeira diferença entre os dois motores, ou null. */
+    private static String firstDifference(StepEngine a, StepEngine b, Cells ca, Cells cb) {
+        if (a.getStepNumber() != b.getStepNumber()) {
+            return "stepNumber " + a.getStepNumber() + " vs " + b.getStepNumber();
+        }
+        World wa = a.getWorld();
+        World wb = b.getWorld();
+        ca.capture(wa);
+        cb.capture(wb);
+        for (int i = 0; i < ca.codes.length; i++) {
+            String what = null;
+            if (ca.codes[i] != cb.codes[i]) what = ca.codes[i] + " vs " + cb.codes[i];
+            else if (ca.ages[i] != cb.ages[i]) what = "age " + ca.ages[i] + " vs " + cb.ages[i];
+            else if (ca.energies[i] != cb.energies[i]) what = "energy " + ca.energies[i] + " vs " + cb.energies[i];
+            if (what != null) {
+                int x = i % wa.getWidth();
+                int y = i / wa.getWidth();
+                return "cell=(" + x + "," + y + ") " + what;
+            }
+        }
+        if (wa.getStateHash() != wb.getStateHash()) return "stateHash " + wa.getStateHash() + " vs " + wb.getStateHash();
+
+        String sa = a.getStats().getLatestSnapshot().toTextLine();
+        String sb = b.getStats().getLatestSnapshot().toTextLine();
+        if (!sa.equals(sb)) return "stats [" + sa + "] vs [" + sb + "]";
+        return null;
+    }
+
+    /** Tamanho entre 2 e maxSize; probabilidades aleatórias com soma <= 1. */
+    static WorldConfig randomConfig(Random r, int maxSize) {
+        int w = 2 + r.nextInt(Math.max(1, maxSize - 1));
+        int h = 2 + r.nextInt(Math.max(1, maxSize - 1));
+        double wolves = r.nextDouble() * 0.15;
+        double sheep = r.nextDouble() * 0.35;
+        double plants = r.nextDouble() * (1.0 - wolves - sheep);
+        return new WorldConfig(w, h, wolves, sheep, plants);
+    }
+}
@@ -0,0 +1,91 @@
+package sim;
+
+import model.Species;
+
+/**
+ * Buffer pré-alocado de eventos em colunas de primitivos (sem um objeto por evento).
+ * O motor escreve com {@code add}; os listeners leem por índice ou através do flyweight
+ * devolvido por {@link #view(int)}.
+ */
+public final class EventBatch {
+
+    private static final Species[] SPECIES = Species.values();
+
+    private final int capacity;
+    private final int width;
+
+    private final byte[] type;
+    private final byte[] actor;
+    private final byte[] target; // -1 se não houver
+    private final int[] from;    // célula = y * width + x
+    private final int[] to;
+    private int size;
+
+    private final SimulationEvent flyweight = new SimulationEvent();
+
+    EventBatch(int capacity, int width) {
+        if (capacity <= 0) throw new IllegalArgumentException("Capacidade inválida: " + capacity);
+        this.capacity = capacity;
+        this.width = width;
+        this.type = new byte[capacity];
+        this.actor = new byte[capacity];
+        this.target = new byte[capacity];
+        this.from = new int[capacity];
+        this.to = new int[capacity];
+    }
+
+    // ---------- escrita (motor) ----------
+
+    boolean isFull() { return size == capacity; }
+
+    void clear() { size = 0; }
+
+    void add(EventType t, Species a, Species tg, int fromCell, int toCell) {
+        int i = size++;
+        type[i] = (byte) t.ordinal();
+        actor[i] = (byte) a.ordinal();
+        target[i] = tg == null ? -1 : (byte) tg.ordinal();
+        from[i] = fromCell;
+        to[i] = toCell;
+    }
+
+    // ---------- leitura (listeners) ----------
+
+    public int size() { return size; }
+
+    public int width() { return width; }
+
+    public EventType type(int i) { return EventType.of(type[i]); }
+
+    public Species actor(int i) { return SPECIES[actor[i]]; }
+
+    /** Espécie do alvo (presa/planta pisada) ou null. */
+    public Species target(int i) { return target[i] < 0 ? null : SPECIES[target[i]]; }
+
+    public int fromCell(int i) { return from[i]; }
+
+    public int toCell(int i) { return to[i]; }
+
+    /** Flyweight reutilizado: só é válido até à próxima chamada a {@code view}. */
+    public SimulationEvent view(int i) {
+        if (i < 0 || i >= size) throw new IndexOutOfBoundsException("Evento " + i + " de " + size);
+        flyweight.index = i;
+        return flyweight;
+    }
+
+    /** Vista de um evento do lote, sem alocação. */
+    public final class SimulationEvent {
+        private int index;
+
+        private SimulationEvent() {}
+
+        public EventType type() { return EventBatch.this.type(index); }
+        public Species actor() { return EventBatch.this.actor(index); }
+        public Species target() { return EventBatch.this.target(index); }
+
+        public int fromX() { return from[index] % width; }
+        public int fromY() { return from[index] / width; }
+        public int toX() { return to[index] % width; }
+        public int toY() { return to[index] / width; }
+    }
+}
@@ -0,0 +1,23 @@
+package sim;
+
+/** Tipos de evento emitidos pelo motor durante um passo. */
+public enum EventType {
+    /** Animal mudou de célula (inclui entrar numa célula com comida). */
+    MOVE,
+    /** Novo organismo por reprodução. */
+    BIRTH,
+    /** O ator comeu o alvo e ganhou energia (ovelha→planta, lobo→ovelha). */
+    PREDATION,
+    /** O ator entrou na célula do alvo e destruiu-o sem ganhar energia (lobo→planta). */
+    TRAMPLE,
+    DEATH_OLD_AGE,
+    DEATH_STARVATION,
+    /** Animal novo chegado de fora, numa célula vazia sorteada (não é nascimento). */
+    IMMIGRATION;
+
+    private static final EventType[] VALUES = values();
+
+    static EventType of(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
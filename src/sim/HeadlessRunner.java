@@ -0,0 +1,241 @@
+package sim;
+
+import io.FrameStreamWriter;
+import io.SharedFramePublisher;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.random.RandomGenerator;
+import model.Species;
+import rng.RandomStreams;
+import world.OrganismPool;
+import world.World;
+import world.WorldConfig;
+
+/**
+ * Corrida sem terminal interativo, para execuções longas e varrimentos. Argumentos "chave=valor":
+ * <ul>
+ *   <li>width, height, wolves, sheep, plants: mundo inicial (probabilidades 0..1)</li>
+ *   <li>steps, seed: duração e semente</li>
+ *   <li>rng: gerador ("Random" por omissão, o único que reproduz as corridas de referência;
+ *       qualquer algoritmo de {@code RandomGeneratorFactory}, ou "buffered:" + nome,
+ *       ver {@link RandomStreams})</li>
+ *   <li>engine: motor registado em {@link Engines}</li>
+ *   <li>hunt: raio de caça dirigida dos lobos (0 = movimento aleatório)</li>
+ *   <li>reorder=N: itera pela ordem Morton a cada N passos (só no motor de referência;
+ *       muda a dinâmica)</li>
+ *   <li>immigration: imigrantes esperados por passo ({@link WorldConfig#getImmigrationRate()})</li>
+ *   <li>restock: animais repostos quando lobos ou ovelhas se extinguem
+ *       ({@link WorldConfig#getRestockCount()})</li>
+ *   <li>pool=true: recicla os organismos retirados ({@link OrganismPool}; -Dsim.poolDebug=true
+ *       verifica referências obsoletas)</li>
+ *   <li>report=N: estatísticas a cada N passos; jmx: nome do MBean</li>
+ *   <li>alloc=true: bytes alocados por passo e por fase ({@link AllocationMeter})</li>
+ *   <li>frames, keyframe: ficheiro de frames e intervalo de keyframes ({@link FrameStreamWriter})</li>
+ *   <li>shm, shmSlots: anel de frames em memória partilhada ({@link SharedFramePublisher})</li>
+ *   <li>heatmap, heatmapBlock: CSV de densidades por blocos no fim ({@link DensityTables})</li>
+ *   <li>ff=K, ffEvery, ffWindow: salta K passos pelo campo médio a cada ffEvery passos por agentes,
+ *       ajustado numa janela de ffWindow passos ({@link MeanFieldFastForward})</li>
+ *   <li>lineage ("all" ou espécies, ex. "wolf,sheep"), lineageTop: regista as linhagens e imprime
+ *       as lineageTop com mais vivos; lineageSpill, lineageChunks: despejo em disco
+ *       ({@link LineageTracker})</li>
+ * </ul>
+ */
+public final class HeadlessRunner {
+
+    private HeadlessRunner() {}
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> opts = parseArgs(args);
+        WorldConfig def = WorldConfig.defaultConfig();
+
+        WorldConfig cfg = new WorldConfig(
+                intOpt(opts, "width", def.getWidth()),
+                intOpt(opts, "height", def.getHeight()),
+                doubleOpt(opts, "wolves", def.getWolfProb()),
+                doubleOpt(opts, "sheep", def.getSheepProb()),
+                doubleOpt(opts, "plants", def.getPlantProb()),
+                doubleOpt(opts, "immigration", def.getImmigrationRate()),
+                intOpt(opts, "restock", def.getRestockCount()));
+        int steps = intOpt(opts, "steps", 1000);
+        int report = intOpt(opts, "report", 0);
+        long seed = opts.containsKey("seed") ? Long.parseLong(opts.get("seed")) : new Random().nextLong();
+        RandomGenerator rng = RandomStreams.create(opts.getOrDefault("rng", RandomStreams.LEGACY), seed);
+
+        World world = World.fromConfig(cfg, rng);
+        if (Boolean.parseBoolean(opts.get("pool"))) world.enableRecycling(new OrganismPool());
+        SpeciesTable table = SpeciesTable.standard();
+        int hunt = intOpt(opts, "hunt", 0);
+        if (hunt > 0) table.setHunting(Species.WOLF, Species.SHEEP, hunt);
+        StepEngine engine = Engines.create(opts.getOrDefault("engine", Engines.defaultName()), world, rng, table);
+
+        if (cfg.hasImmigration()) {
+            if (!(engine instanceof SimulationEngine)) {
+                throw new IllegalArgumentException("immigration/restock só são suportados pelo motor " + Engines.REFERENCE);
+            }
+            ((SimulationEngine) engine).setImmigration(cfg);
+        }
+
+        SimulationStatsMonitor monitor = null;
+        if (opts.containsKey("jmx")) {
+            monitor = new SimulationStatsMonitor(engine.getStats());
+            monitor.register(opts.get("jmx"));
+        }
+
+        FrameStreamWriter frames = null;
+        if (opts.containsKey("frames")) {
+            frames = new FrameStreamWriter(world, Path.of(opts.get("frames")), intOpt(opts, "keyframe", 100));
+            frames.writeFrame(engine.getStepNumber());
+            engine.addListener(frames);
+        }
+
+        SharedFramePublisher shared = null;
+        if (opts.containsKey("shm")) {
+            shared = new SharedFramePublisher(world, engine.getStats(), Path.of(opts.get("shm")), intOpt(opts, "shmSlots", 3));
+            shared.publish(engine.getStepNumber());
+            engine.addListener(shared);
+        }
+
+        DensityTables density = null;
+        if (opts.containsKey("heatmap")) {
+            density = new DensityTables(world);
+            engine.addListener(density);
+        }
+
+        int reorder = intOpt(opts, "reorder", 0);
+        if (reorder > 0) {
+            if (!(engine instanceof SimulationEngine)) {
+                throw new IllegalArgumentException("reorder só é suportado pelo motor " + Engines.REFERENCE);
+            }
+            ((SimulationEngine) engine).setReorderInterval(reorder);
+        }
+
+        AllocationMeter alloc = null;
+        if (Boolean.parseBoolean(opts.get("alloc"))) {
+            alloc = engine.enableAllocationMeter();
+            if (alloc == null) throw new IllegalArgumentException("alloc não é suportado pelo motor " + engine.getName());
+        }
+
+        LineageTracker lineage = null;
+        if (opts.containsKey("lineage")) {
+            if (!(engine instanceof SimulationEngine)) {
+                throw new IllegalArgumentException("lineage só é suportado pelo motor " + Engines.REFERENCE);
+            }
+            if (opts.containsKey("ff")) throw new IllegalArgumentException("lineage não é compatível com ff");
+            Set<Species> species = parseSpecies(opts.get("lineage"));
+            lineage = opts.containsKey("lineageSpill")
+                    ? new LineageTracker(species, Path.of(opts.get("lineageSpill")),
+                            intOpt(opts, "lineageChunks", LineageTracker.DEFAULT_RESIDENT_CHUNKS))
+                    : new LineageTracker(species);
+            ((SimulationEngine) engine).setLineageTracker(lineage);
+        }
+
+        MeanFieldFastForward fast = null;
+        int ff = intOpt(opts, "ff", 0);
+        int ffEvery = intOpt(opts, "ffEvery", 200);
+        if (ff > 0) {
+            if (!(engine instanceof SimulationEngine)) {
+                throw new IllegalArgumentException("ff só é suportado pelo motor " + Engines.REFERENCE);
+            }
+            int window = intOpt(opts, "ffWindow", MeanFieldFastForward.DEFAULT_WINDOW);
+            if (ffEvery < window) throw new IllegalArgumentException("ffEvery deve ser >= ffWindow");
+            fast = new MeanFieldFastForward((SimulationEngine) engine, window, new Random(rng.nextLong()));
+        }
+        int nextFf = engine.getStepNumber() + ffEvery;
+
+        StopCondition stop = StopCondition.ANY_EXTINCT.or(StopCondition.DEGENERATE);
+        long t0 = System.nanoTime();
+        while (engine.getStepNumber() < steps && !stop.shouldStop(engine)) {
+            int chunk = report > 0 ? Math.min(report, steps - engine.getStepNumber()) : steps - engine.getStepNumber();
+            if (fast != null) chunk = Math.max(1, Math.min(chunk, nextFf - engine.getStepNumber()));
+            engine.stepN(chunk, stop);
+            if (report > 0 && engine.getStepNumber() % report == 0) {
+                System.out.println(populationLine(world, engine.getStepNumber())
+                        + " " + engine.getStats().getLatestSnapshot().toTextLine());
+            }
+            if (fast != null && engine.getStepNumber() >= nextFf && engine.getStepNumber() < steps && fast.isReady()) {
+                MeanFieldFastForward.Result r = fast.fastForward(Math.min(ff, steps - engine.getStepNumber()));
+                System.out.println("fastforward " + r.toTextLine());
+                nextFf = engine.getStepNumber() + ffEvery;
+            }
+        }
+        double secs = (System.nanoTime() - t0) / 1e9;
+
+        System.out.println("final " + populationLine(world, engine.getStepNumber()));
+        if (engine.isDegenerate()) {
+            CycleDetector cd = engine.getCycleDetector();
+            System.out.println("stopped reason=" + cd.getStatus() + " cycleLength=" + cd.getCycleLength());
+        }
+        System.out.println("stats " + engine.getStats().getLatestSnapshot().toTextLine());
+        if (alloc != null) System.out.println("alloc " + alloc.toTextLine());
+        if (world.getOrganismPool() != null) System.out.println("pool " + world.getOrganismPool().toTextLine());
+        System.out.printf("time seconds=%.3f stepsPerSec=%.1f%n", secs, engine.getStepNumber() / Math.max(secs, 1e-9));
+
+        if (lineage != null) {
+            System.out.println("lineage records=" + lineage.size() + " spilledChunks=" + lineage.getSpilledChunks());
+            int top = intOpt(opts, "lineageTop", 5);
+            for (Species s : Species.values()) {
+                if (!lineage.isTracked(s)) continue;
+                List<LineageTracker.Lineage> alive = lineage.survivingLineages(s);
+                System.out.println("lineages species=" + s + " surviving=" + alive.size());
+                for (int i = 0; i < Math.min(top, alive.size()); i++) {
+                    LineageTracker.Lineage l = alive.get(i);
+                    System.out.println("lineage " + l.toTextLine()
+                            + " descendants=" + lineage.descendantCount(l.getFounder()));
+                }
+            }
+            lineage.close();
+        }
+        if (density != null) density.writeHeatmapCsv(Path.of(opts.get("heatmap")), intOpt(opts, "heatmapBlock", 10));
+        if (frames != null) frames.close();
+        if (shared != null) shared.close();
+        if (monitor != null) monitor.unregister();
+    }
+
+    static String populationLine(World world, int step) {
+        return "step=" + step
+                + " plants=" + world.getPopulation(Species.PLANT)
+                + " sheep=" + world.getPopulation(Species.SHEEP)
+                + " wolves=" + world.getPopulation(Species.WOLF);
+    }
+
+    /** "all" ou nomes separados por vírgulas (plant, sheep, wolf). */
+    static Set<Species> parseSpecies(String spec) {
+        if (spec.equalsIgnoreCase("all")) return EnumSet.allOf(Species.class);
+        Set<Species> out = EnumSet.noneOf(Species.class);
+        for (String name : spec.split(",")) {
+            try {
+                out.add(Species.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Espécie desconhecida: " + name);
+            }
+        }
+        return out;
+    }
+
+    static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> m = new HashMap<>();
+        for (String a : args) {
+            int eq = a.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Argumento inválido (esperado chave=valor): " + a);
+            m.put(a.substring(0, eq).trim(), a.substring(eq + 1).trim());
+        }
+        return m;
+    }
+
+    static int intOpt(Map<String, String> m, String key, int def) {
+        String v = m.get(key);
+        return v == null ? def : Integer.parseInt(v);
+    }
+
+    static double doubleOpt(Map<String, String> m, String key, double def) {
+        String v = m.get(key);
+        return v == null ? def : Double.parseDouble(v.replace(',', '.'));
+    }
+}
@@ -0,0 +1,407 @@
+package sim;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import model.Organism;
+import model.Species;
+
+/**
+ * Registo de linhagens: cada organismo seguido recebe um id inteiro sequencial
+ * ({@link Organism#assignLineageId}) e uma linha em colunas de primitivos — pai, par, fundador,
+ * passo de nascimento, passo e causa da morte, espécie. As colunas vivem em blocos de
+ * {@link #CHUNK} linhas; com um ficheiro de despejo, só os {@code residentChunks} blocos mais
+ * recentes ficam em memória e os mais antigos vão para disco (as mortes tardias escrevem-se lá
+ * diretamente), por isso a memória não cresce com a duração da corrida.
+ *
+ * <p>Como os filhos têm sempre ids maiores do que os pais, as consultas são passagens sequenciais
+ * pelos blocos. Os organismos presentes quando o registo é ligado são fundadores; os que entrem por
+ * fora do motor (sem nascimento registado) passam a fundadores na primeira vez que são vistos.</p>
+ */
+public final class LineageTracker implements Closeable {
+
+    public static final int CHUNK_SHIFT = 16;
+    public static final int CHUNK = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK - 1;
+
+    /** Passo de morte de quem ainda está vivo (ou saiu sem morte registada). */
+    public static final int ALIVE = -1;
+    public static final int DEFAULT_RESIDENT_CHUNKS = 16;
+
+    private static final byte NO_CAUSE = -1;
+    private static final int INT_COLUMNS = 5; // pai, par, fundador, nascimento, morte
+    private static final long CHUNK_BYTES = (long) CHUNK * (INT_COLUMNS * 4 + 2);
+    private static final long DEATH_OFFSET = 4L * CHUNK * 4;
+    /** Mortes de linhas já em disco acumuladas antes de serem aplicadas, bloco a bloco. */
+    private static final int LATE_LOG = 1 << 14;
+
+    /** Uma linhagem com descendentes vivos: o fundador e quantos organismos vivos descendem dele. */
+    public static final class Lineage {
+        private final int founder;
+        private final Species species;
+        private final int founderBirthStep;
+        private final int living;
+
+        Lineage(int founder, Species species, int founderBirthStep, int living) {
+            this.founder = founder;
+            this.species = species;
+            this.founderBirthStep = founderBirthStep;
+            this.living = living;
+        }
+
+        public int getFounder() { return founder; }
+        public Species getSpecies() { return species; }
+        public int getFounderBirthStep() { return founderBirthStep; }
+        public int getLiving() { return living; }
+
+        public String toTextLine() {
+            return "founder=" + founder + " species=" + species + " born=" + founderBirthStep + " living=" + living;
+        }
+    }
+
+    private static final class Chunk {
+        final int[] parent = new int[CHUNK];
+        final int[] mate = new int[CHUNK];
+        final int[] root = new int[CHUNK];
+        final int[] birth = new int[CHUNK];
+        final int[] death = new int[CHUNK];
+        final byte[] species = new byte[CHUNK];
+        final byte[] cause = new byte[CHUNK];
+    }
+
+    private final boolean[] tracked = new boolean[Species.values().length];
+    private final List<Chunk> chunks = new ArrayList<>(); // null = despejado para o ficheiro
+    private final FileChannel spill;
+    private final int residentChunks;
+    private final ByteBuffer io;
+    private final ByteBuffer small = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+    private final long[] lateKeys;   // (id << 32) | posição no registo, para ordenar por id
+    private final int[] lateSteps;
+    private final byte[] lateCauses;
+    private int lateCount;
+    private Chunk scratch;
+    private int scratchChunk = -1;   // bloco despejado que está em scratch (-1 = nenhum)
+    private int firstResident;
+    private int size;
+
+    /** Tudo em memória (sem limite), para todas as espécies. */
+    public LineageTracker() {
+        this(EnumSet.allOf(Species.class));
+    }
+
+    public LineageTracker(Set<Species> species) {
+        this.spill = null;
+        this.residentChunks = Integer.MAX_VALUE;
+        this.io = null;
+        this.lateKeys = null;
+        this.lateSteps = null;
+        this.lateCauses = null;
+        for (Species s : species) tracked[s.ordinal()] = true;
+    }
+
+    /** Com despejo: no máximo {@code residentChunks} blocos em memória, o resto em {@code file}. */
+    public LineageTracker(Set<Species> species, Path file, int residentChunks) throws IOException {
+        if (residentChunks <= 0) throw new IllegalArgumentException("Nº de blocos residentes inválido: " + residentChunks);
+        this.residentChunks = residentChunks;
+        this.spill = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.io = ByteBuffer.allocateDirect((int) CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        this.lateKeys = new long[LATE_LOG];
+        this.lateSteps = new int[LATE_LOG];
+        this.lateCauses = new byte[LATE_LOG];
+        for (Species s : species) tracked[s.ordinal()] = true;
+    }
+
+    // -------------------- REGISTO (chamado pelo motor) --------------------
+
+    public boolean isTracked(Species s) { return tracked[s.ordinal()]; }
+
+    /** Regista como fundadores os organismos seguidos que ainda não têm id. */
+    public void registerFounders(Iterable<? extends Organism> organisms, int step) {
+        for (Organism o : organisms) idOf(o, step);
+    }
+
+    /** Organismo chegado de fora do motor (ex.: imigrante): fundador de uma linhagem nova. */
+    public void registerFounder(Organism o, int step) {
+        idOf(o, step);
+    }
+
+    /** Nascimento de {@code child}; {@code mate} pode ser {@code null} (reprodução sem par). */
+    public void birth(Organism child, Organism parent, Organism mate, int step) {
+        if (!tracked[child.getSpecies().ordinal()]) return;
+        int p = idOf(parent, step);
+        int m = (mate == null) ? Organism.NO_LINEAGE_ID : idOf(mate, step);
+        append(child, p, m, (p < 0) ? -1 : root(p), step);
+    }
+
+    /** Morte com causa ({@link EventType#PREDATION}, {@link EventType#TRAMPLE} ou natural). */
+    public void death(Organism o, int step, EventType cause) {
+        int id = idOf(o, step);
+        if (id < 0) return;
+        Chunk c = resident(id);
+        if (c != null) {
+            c.death[id & CHUNK_MASK] = step;
+            c.cause[id & CHUNK_MASK] = (byte) cause.ordinal();
+        } else {
+            logSpilledDeath(id, step, cause);
+        }
+    }
+
+    private int idOf(Organism o, int step) {
+        int id = o.getLineageId();
+        if (id != Organism.NO_LINEAGE_ID || !tracked[o.getSpecies().ordinal()]) return id;
+        return append(o, Organism.NO_LINEAGE_ID, Organism.NO_LINEAGE_ID, -1, step - o.getAge());
+    }
+
+    private int append(Organism o, int parent, int mate, int root, int birthStep) {
+        if (size == Integer.MAX_VALUE) throw new IllegalStateException("Ids de linhagem esgotados.");
+        int id = size++;
+        int k = id >>> CHUNK_SHIFT;
+        if (k == chunks.size()) {
+            chunks.add(new Chunk());
+            if (spill != null && chunks.size() - firstResident > residentChunks) spillOldest();
+        }
+        Chunk c = chunks.get(k);
+        int i = id & CHUNK_MASK;
+        c.parent[i] = parent;
+        c.mate[i] = mate;
+        c.root[i] = (root < 0) ? id : root;
+        c.birth[i] = birthStep;
+        c.death[i] = ALIVE;
+        c.species[i] = (byte) o.getSpecies().ordinal();
+        c.cause[i] = NO_CAUSE;
+        o.assignLineageId(id);
+        return id;
+    }
+
+    private int root(int id) {
+        Chunk c = resident(id);
+        if (c != null) return c.root[id & CHUNK_MASK];
+        return readSpilledInt(id, 2L * CHUNK * 4);
+    }
+
+    private Chunk resident(int id) {
+        return chunks.get(id >>> CHUNK_SHIFT);
+    }
+
+    // -------------------- DESPEJO PARA DISCO --------------------
+
+    private void spillOldest() {
+        int k = firstResident++;
+        Chunk c = chunks.get(k);
+        io.clear();
+        io.asIntBuffer().put(c.parent).put(c.mate).put(c.root).put(c.birth).put(c.death);
+        io.position(INT_COLUMNS * CHUNK * 4);
+        io.put(c.species).put(c.cause);
+        io.flip();
+        try {
+            long pos = k * CHUNK_BYTES;
+            while (io.hasRemaining()) pos += spill.write(io, pos);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao despejar linhagens", e);
+        }
+        chunks.set(k, null);
+    }
+
+    private void logSpilledDeath(int id, int step, EventType cause) {
+        lateKeys[lateCount] = ((long) id << 32) | lateCount;
+        lateSteps[lateCount] = step;
+        lateCauses[lateCount] = (byte) cause.ordinal();
+        if (++lateCount == LATE_LOG) flushLateDeaths();
+    }
+
+    /**
+     * Aplica as mortes pendentes por ordem de id: uma leitura e uma escrita da zona
+     * morte + espécie + causa de cada bloco tocado, em vez de duas escritas pequenas por morte.
+     */
+    private void flushLateDeaths() {
+        if (lateCount == 0) return;
+        scratchChunk = -1; // a cópia em scratch pode ter ficado sem estas mortes
+        Arrays.sort(lateKeys, 0, lateCount);
+        int causeAt = CHUNK * 4 + CHUNK;
+        int i = 0;
+        try {
+            while (i < lateCount) {
+                int k = (int) (lateKeys[i] >>> 32) >>> CHUNK_SHIFT;
+                long pos = k * CHUNK_BYTES + DEATH_OFFSET;
+                io.clear().limit(CHUNK * 6);
+                while (io.hasRemaining()) {
+                    if (spill.read(io, pos + io.position()) < 0) throw new IOException("Fim de ficheiro inesperado");
+                }
+                for (; i < lateCount && ((int) (lateKeys[i] >>> 32) >>> CHUNK_SHIFT) == k; i++) {
+                    int row = (int) (lateKeys[i] >>> 32) & CHUNK_MASK;
+                    int entry = (int) lateKeys[i];
+                    io.putInt(4 * row, lateSteps[entry]);
+                    io.put(causeAt + row, lateCauses[entry]);
+                }
+                io.flip();
+                while (io.hasRemaining()) pos += spill.write(io, pos);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar mortes de linhagem", e);
+        }
+        lateCount = 0;
+    }
+
+    private int readSpilledInt(int id, long columnOffset) {
+        long pos = (long) (id >>> CHUNK_SHIFT) * CHUNK_BYTES + columnOffset + 4L * (id & CHUNK_MASK);
+        try {
+            small.clear();
+            while (small.hasRemaining()) {
+                if (spill.read(small, pos + small.position()) < 0) throw new IOException("Fim de ficheiro inesperado");
+            }
+            return small.getInt(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler linhagens", e);
+        }
+    }
+
+    /**
+     * Bloco {@code k}, de memória ou lido do ficheiro para um buffer reutilizado (só para consultas);
+     * leituras seguidas do mesmo bloco despejado não voltam ao disco.
+     */
+    private Chunk view(int k) {
+        Chunk c = chunks.get(k);
+        if (c != null) return c;
+        if (scratch == null) scratch = new Chunk();
+        flushLateDeaths();
+        if (scratchChunk == k) return scratch;
+        try {
+            io.clear();
+            long pos = k * CHUNK_BYTES;
+            while (io.hasRemaining()) {
+                int r = spill.read(io, pos + io.position());
+                if (r < 0) throw new IOException("Fim de ficheiro inesperado");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler linhagens", e);
+        }
+        io.flip();
+        io.asIntBuffer().get(scratch.parent).get(scratch.mate).get(scratch.root).get(scratch.birth).get(scratch.death);
+        io.position(INT_COLUMNS * CHUNK * 4);
+        io.get(scratch.species).get(scratch.cause);
+        scratchChunk = k;
+        return scratch;
+    }
+
+    // -------------------- CONSULTAS --------------------
+
+    /** Nº de organismos registados (o próximo id). */
+    public int size() { return size; }
+
+    /** Blocos atualmente em disco. */
+    public int getSpilledChunks() { return firstResident; }
+
+    public int getParent(int id) { return column(id).parent[id & CHUNK_MASK]; }
+    public int getMate(int id) { return column(id).mate[id & CHUNK_MASK]; }
+    /** Fundador da linha materna (o próprio id, para fundadores). */
+    public int getFounder(int id) { return column(id).root[id & CHUNK_MASK]; }
+    public int getBirthStep(int id) { return column(id).birth[id & CHUNK_MASK]; }
+    public int getDeathStep(int id) { return column(id).death[id & CHUNK_MASK]; }
+    public Species getSpecies(int id) { return Species.values()[column(id).species[id & CHUNK_MASK]]; }
+
+    /** Causa da morte, ou {@code null} se não houver morte registada. */
+    public EventType getDeathCause(int id) {
+        byte c = column(id).cause[id & CHUNK_MASK];
+        return (c == NO_CAUSE) ? null : EventType.values()[c];
+    }
+
+    private Chunk column(int id) {
+        return view(check(id) >>> CHUNK_SHIFT);
+    }
+
+    private int check(int id) {
+        if (id < 0 || id >= size) throw new IllegalArgumentException("Id de linhagem desconhecido: " + id);
+        return id;
+    }
+
+    /**
+     * Nº de descendentes de {@code id} (por qualquer dos pais, todas as gerações, vivos ou mortos).
+     * Uma passagem pelos ids seguintes, com um bit por organismo mais novo.
+     */
+    public long descendantCount(int id) {
+        check(id);
+        BitSet inFamily = new BitSet();
+        inFamily.set(0);
+        long count = 0;
+        for (int k = (id + 1) >>> CHUNK_SHIFT; k < chunks.size(); k++) {
+            Chunk c = view(k);
+            int from = Math.max(id + 1, k << CHUNK_SHIFT);
+            int to = Math.min(size, (k + 1) << CHUNK_SHIFT);
+            for (int j = from; j < to; j++) {
+                int i = j & CHUNK_MASK;
+                int p = c.parent[i];
+                int m = c.mate[i];
+                if ((p >= id && inFamily.get(p - id)) || (m >= id && inFamily.get(m - id))) {
+                    inFamily.set(j - id);
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /** Organismos vivos por fundador (linha materna), das linhagens da espécie que ainda têm vivos; os maiores primeiro. */
+    public List<Lineage> survivingLineages(Species species) {
+        // uma só passagem: o fundador tem id menor do que os descendentes, por isso o seu nascimento
+        // já foi visto quando aparece o primeiro vivo da linhagem
+        Map<Integer, int[]> living = new HashMap<>();   // fundador -> {vivos, nascimento}
+        int[] founderIds = new int[64];
+        int[] founderBirths = new int[64];
+        int founders = 0;
+        byte sp = (byte) species.ordinal();
+        for (int k = 0; k < chunks.size(); k++) {
+            Chunk c = view(k);
+            int base = k << CHUNK_SHIFT;
+            int n = Math.min(CHUNK, size - base);
+            for (int i = 0; i < n; i++) {
+                if (c.species[i] != sp) continue;
+                int root = c.root[i];
+                if (root == base + i) {
+                    if (founders == founderIds.length) {
+                        founderIds = Arrays.copyOf(founderIds, founders * 2);
+                        founderBirths = Arrays.copyOf(founderBirths, founders * 2);
+                    }
+                    founderIds[founders] = root;
+                    founderBirths[founders++] = c.birth[i];
+                }
+                if (c.death[i] == ALIVE) {
+                    int[] e = living.get(root);
+                    if (e == null) {
+                        // a linha materna não muda de espécie: o fundador está na lista
+                        e = new int[] {0, founderBirths[Arrays.binarySearch(founderIds, 0, founders, root)]};
+                        living.put(root, e);
+                    }
+                    e[0]++;
+                }
+            }
+        }
+        List<Lineage> out = new ArrayList<>(living.size());
+        for (Map.Entry<Integer, int[]> e : living.entrySet()) {
+            out.add(new Lineage(e.getKey(), species, e.getValue()[1], e.getValue()[0]));
+        }
+        out.sort(Comparator.comparingInt(Lineage::getLiving).reversed().thenComparingInt(Lineage::getFounder));
+        return out;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (spill == null) return;
+        flushLateDeaths();
+        spill.close();
+    }
+}
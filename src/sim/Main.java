@@ -6,6 +6,7 @@ import java.util.Random;
 import java.util.Scanner;
 import model.Species;
 import ui.ConsoleRenderer;
+import ui.ViewportRenderer;
 import world.World;
 import world.WorldConfig;
 
@@ -32,10 +33,24 @@ public final class Main {
         // Configuração atual (começa com default, mas podes mudar com opção 5/6)
         WorldConfig cfg = WorldConfig.defaultConfig();
 
+        // Motor escolhido por "engine=nome" ou -Dsim.engine (por omissão, a referência)
+        String engineName = Engines.defaultName();
+        for (String a : args) {
+            if (a.startsWith("engine=")) engineName = a.substring("engine=".length());
+        }
+
+        // Parâmetros das espécies (a opção 7 pode trocá-los pelos da melhor configuração encontrada)
+        SpeciesTable table = SpeciesTable.standard();
+
         // Mundo e motor atuais
         World world = World.fromConfig(cfg, rng);
-        SimulationEngine engine = new SimulationEngine(world, rng);
+        StepEngine engine = createEngine(engineName, world, rng, table, cfg);
         ConsoleRenderer renderer = new ConsoleRenderer();
+        renderer.attach(engine);
+
+        // estatísticas visíveis por JMX (jconsole / jcmd) enquanto o menu corre
+        SimulationStatsMonitor monitor = new SimulationStatsMonitor(engine.getStats());
+        monitor.register("main");
 
         renderer.render(world, engine.getStepNumber(), engine.getStats());
 
@@ -75,11 +90,10 @@ public final class Main {
                     List<EvolutionPoint> evo = new ArrayList<>();
                     evo.add(snapshot(world, engine.getStepNumber()));
 
-                    for (int i = 0; i < n; i++) {
-                        if (isAnySpeciesExtinct(world)) break;
-                        engine.step();
-                        evo.add(snapshot(world, engine.getStepNumber()));
-                    }
+                    StepListener recorder = evolutionRecorder(world, evo);
+                    engine.addListener(recorder);
+                    engine.stepN(n, StopCondition.ANY_EXTINCT);
+                    engine.removeListener(recorder);
 
                     renderer.render(world, engine.getStepNumber(), engine.getStats());
                     if (isAnySpeciesExtinct(world)) renderer.printExtinctionMessage(world);
@@ -94,17 +108,17 @@ public final class Main {
                     List<EvolutionPoint> evo = new ArrayList<>();
                     evo.add(snapshot(world, engine.getStepNumber()));
 
-                    int ran = 0;
-                    while (!isAnySpeciesExtinct(world) && ran < maxSteps) {
-                        engine.step();
-                        ran++;
-                        evo.add(snapshot(world, engine.getStepNumber()));
-                    }
+                    StepListener recorder = evolutionRecorder(world, evo);
+                    engine.addListener(recorder);
+                    engine.stepN(maxSteps, StopCondition.ANY_EXTINCT.or(StopCondition.DEGENERATE));
+                    engine.removeListener(recorder);
 
                     renderer.render(world, engine.getStepNumber(), engine.getStats());
 
                     if (isAnySpeciesExtinct(world)) {
                         renderer.printExtinctionMessage(world);
+                    } else if (engine.isDegenerate()) {
+                        System.out.println("Parou cedo: " + engine.getCycleDetector().describe());
                     } else {
                         System.out.println("Parou por atingir maxSteps=" + maxSteps + " sem extinção.");
                     }
@@ -114,7 +128,9 @@ public final class Main {
 
                 case "4" -> { // Reset com config atual
                     world.initializeRandom(cfg);
-                    engine = new SimulationEngine(world, rng);
+                    engine = createEngine(engineName, world, rng, table, cfg);
+                    monitor.attach(engine.getStats());
+                    renderer.attach(engine);
                     renderer.render(world, engine.getStepNumber(), engine.getStats());
                     System.out.println("Mundo reinicializado (configuração atual).");
                 }
@@ -135,11 +151,13 @@ public final class Main {
                     }
 
                     cfg = new WorldConfig(cfg.getWidth(), cfg.getHeight(),
-                            wPct / 100.0, sPct / 100.0, pPct / 100.0);
+                            wPct / 100.0, sPct / 100.0, pPct / 100.0, cfg.getImmigrationRate());
 
                     // reinicializa com novas probabilidades
                     world.initializeRandom(cfg);
-                    engine = new SimulationEngine(world, rng);
+                    engine = createEngine(engineName, world, rng, table, cfg);
+                    monitor.attach(engine.getStats());
+                    renderer.attach(engine);
                     renderer.render(world, engine.getStepNumber(), engine.getStats());
 
                     double empty = 100.0 - (wPct + sPct + pPct);
@@ -158,16 +176,100 @@ public final class Main {
                     }
 
                     // cria um novo config mantendo as probabilidades atuais
-                    cfg = new WorldConfig(newW, newH, cfg.getWolfProb(), cfg.getSheepProb(), cfg.getPlantProb());
+                    cfg = new WorldConfig(newW, newH, cfg.getWolfProb(), cfg.getSheepProb(), cfg.getPlantProb(),
+                            cfg.getImmigrationRate());
 
                     // cria um NOVO mundo com novo tamanho
                     world = World.fromConfig(cfg, rng);
-                    engine = new SimulationEngine(world, rng);
+                    engine = createEngine(engineName, world, rng, table, cfg);
+                    monitor.attach(engine.getStats());
+                    renderer.attach(engine);
 
                     renderer.render(world, engine.getStepNumber(), engine.getStats());
                     System.out.println("Dimensão atualizada e mundo reinicializado.");
                 }
 
+                case "7" -> { // Procura automática (successive halving) e aplica a melhor configuração
+                    int candidates = readInt(sc, "Nº de candidatos (ex: 81): ");
+                    if (candidates <= 0) candidates = 81;
+                    System.out.println("A procurar (pode demorar)...");
+
+                    CoexistenceSearch search = new CoexistenceSearch(
+                            cfg.getWidth(), cfg.getHeight(), 4, 30, 2430, 3, rng.nextLong(), engineName);
+                    List<CoexistenceSearch.Candidate> best = search.run(candidates, 3);
+                    for (int i = 0; i < Math.min(3, best.size()); i++) {
+                        System.out.println((i + 1) + ") " + best.get(i).toTextLine());
+                    }
+
+                    CoexistenceSearch.Candidate top = best.get(0);
+                    cfg = new WorldConfig(cfg.getWidth(), cfg.getHeight(), top.getConfig().getWolfProb(),
+                            top.getConfig().getSheepProb(), top.getConfig().getPlantProb(), cfg.getImmigrationRate());
+                    table = top.getTable();
+
+                    world.initializeRandom(cfg);
+                    engine = createEngine(engineName, world, rng, table, cfg);
+                    monitor.attach(engine.getStats());
+                    renderer.attach(engine);
+                    renderer.render(world, engine.getStepNumber(), engine.getStats());
+                    System.out.println("Melhor configuração aplicada e mundo reinicializado.");
+                }
+
+                case "8" -> { // Janela móvel / vista geral (custo proporcional ao ecrã, não ao mundo)
+                    ViewportRenderer view = renderer.getViewport();
+                    System.out.println("w/a/s/d [n] mover | + / - zoom | m modo (janela, dominante, densidade)"
+                            + " | c X Y centrar | q voltar");
+                    renderer.render(world, engine.getStepNumber(), engine.getStats());
+                    while (true) {
+                        String[] in = sc.nextLine().trim().split("\\s+");
+                        String cmd = in[0].toLowerCase();
+                        if (cmd.equals("q")) break;
+
+                        int scale = (view.getMode() == ViewportRenderer.Mode.VIEWPORT) ? 1 : view.getZoom();
+                        int n = (in.length > 1) ? parseIntOr(in[1], 0) : 0;
+                        switch (cmd) {
+                            case "w" -> view.moveBy(0, -(n > 0 ? n : view.getRows() / 2 * scale));
+                            case "s" -> view.moveBy(0, n > 0 ? n : view.getRows() / 2 * scale);
+                            case "a" -> view.moveBy(-(n > 0 ? n : view.getCols() / 2 * scale), 0);
+                            case "d" -> view.moveBy(n > 0 ? n : view.getCols() / 2 * scale, 0);
+                            case "+" -> view.setZoom(Math.max(1, view.getZoom() / 2));
+                            case "-" -> view.setZoom(Math.min(view.getZoom() * 2, view.fitZoom(world)));
+                            case "m" -> {
+                                ViewportRenderer.Mode[] modes = ViewportRenderer.Mode.values();
+                                view.setMode(modes[(view.getMode().ordinal() + 1) % modes.length]);
+                                if (view.getMode() == ViewportRenderer.Mode.DOMINANT) view.zoomToFit(world);
+                            }
+                            case "c" -> {
+                                if (in.length < 3) {
+                                    System.out.println("Uso: c X Y");
+                                    continue;
+                                }
+                                view.centerOn(parseIntOr(in[1], 0), parseIntOr(in[2], 0));
+                            }
+                            default -> {
+                                System.out.println("Comando inválido.");
+                                continue;
+                            }
+                        }
+                        renderer.render(world, engine.getStepNumber(), engine.getStats());
+                    }
+                }
+
+                case "9" -> { // Imigração: aplica-se ao motor atual, sem reinicializar
+                    double rate = readDouble(sc, "Imigrantes esperados por passo (0 = sem imigração): ");
+                    if (!(rate >= 0) || Double.isInfinite(rate)) {
+                        System.out.println("Erro: taxa inválida.");
+                        break;
+                    }
+                    cfg = new WorldConfig(cfg.getWidth(), cfg.getHeight(), cfg.getWolfProb(), cfg.getSheepProb(),
+                            cfg.getPlantProb(), rate);
+                    if (engine instanceof SimulationEngine) {
+                        ((SimulationEngine) engine).setImmigration(cfg);
+                        System.out.printf("Imigração: %.2f animais/passo.%n", rate);
+                    } else {
+                        System.out.println("O motor " + engine.getName() + " não suporta imigração.");
+                    }
+                }
+
                 case "0" -> {
                     System.out.println("A sair...");
                     return;
@@ -178,13 +280,35 @@ public final class Main {
         }
     }
 
+    /** Motor registado, já com a imigração da configuração (se houver). */
+    private static StepEngine createEngine(String name, World world, Random rng, SpeciesTable table, WorldConfig cfg) {
+        StepEngine engine = Engines.create(name, world, rng, table);
+        if (cfg.hasImmigration() && engine instanceof SimulationEngine) {
+            ((SimulationEngine) engine).setImmigration(cfg);
+        }
+        return engine;
+    }
+
     private static EvolutionPoint snapshot(World world, int step) {
-        int plants = world.countSpecies(Species.PLANT);
-        int sheep = world.countSpecies(Species.SHEEP);
-        int wolves = world.countSpecies(Species.WOLF);
+        int plants = world.getPopulation(Species.PLANT);
+        int sheep = world.getPopulation(Species.SHEEP);
+        int wolves = world.getPopulation(Species.WOLF);
         return new EvolutionPoint(step, plants, sheep, wolves);
     }
 
+    /** Regista as populações no fim de cada passo (contadores O(1)). */
+    private static StepListener evolutionRecorder(World world, List<EvolutionPoint> evo) {
+        return new StepListener() {
+            @Override
+            public void onEvents(int step, EventBatch batch) { }
+
+            @Override
+            public void onStepEnd(int step) {
+                evo.add(snapshot(world, step));
+            }
+        };
+    }
+
     private static void printEvolution(List<EvolutionPoint> evo) {
         if (evo == null || evo.isEmpty()) return;
 
@@ -241,7 +365,8 @@ public final class Main {
                 + " | W=" + (int) Math.round(cfg.getWolfProb() * 100) + "% "
                 + "O=" + (int) Math.round(cfg.getSheepProb() * 100) + "% "
                 + "*=" + (int) Math.round(cfg.getPlantProb() * 100) + "% "
-                + "vazio=" + (int) Math.round((1.0 - (cfg.getWolfProb() + cfg.getSheepProb() + cfg.getPlantProb())) * 100) + "%");
+                + "vazio=" + (int) Math.round((1.0 - (cfg.getWolfProb() + cfg.getSheepProb() + cfg.getPlantProb())) * 100) + "%"
+                + (cfg.getImmigrationRate() > 0 ? String.format(" | imigração=%.2f/passo", cfg.getImmigrationRate()) : ""));
 
         System.out.println("Menu:");
         System.out.println("1 - Passo-a-passo");
@@ -250,14 +375,17 @@ public final class Main {
         System.out.println("4 - Reset (reinicializar mundo)");
         System.out.println("5 - Alterar probabilidades iniciais (e reinicializar)");
         System.out.println("6 - Alterar dimensão da grelha (e reinicializar)");
+        System.out.println("7 - Procurar configuração com coexistência longa (e reinicializar)");
+        System.out.println("8 - Vista do mundo (mover janela / vista geral)");
+        System.out.println("9 - Alterar taxa de imigração de animais");
         System.out.println("0 - Sair");
         System.out.print("> ");
     }
 
     private static boolean isAnySpeciesExtinct(World world) {
-        return world.countSpecies(Species.PLANT) == 0
-                || world.countSpecies(Species.SHEEP) == 0
-                || world.countSpecies(Species.WOLF) == 0;
+        return world.getPopulation(Species.PLANT) == 0
+                || world.getPopulation(Species.SHEEP) == 0
+                || world.getPopulation(Species.WOLF) == 0;
     }
 
     private static int readInt(Scanner sc, String prompt) {
@@ -272,6 +400,14 @@ public final class Main {
         }
     }
 
+    private static int parseIntOr(String s, int fallback) {
+        try {
+            return Integer.parseInt(s);
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
     private static double readDouble(Scanner sc, String prompt) {
         while (true) {
             System.out.print(prompt);
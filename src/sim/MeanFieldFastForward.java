@@ -0,0 +1,152 @@
+package sim;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.random.RandomGenerator;
+import model.Animal;
+import model.Organism;
+import model.Position;
+import model.Species;
+import world.World;
+
+/**
+ * Modo híbrido: enquanto o motor simula por agentes, um {@link RateEstimator} ajusta as taxas;
+ * {@link #fastForward(int)} avança então só as contagens com o {@link MeanFieldModel} e volta a
+ * materializar um mundo com essas contagens exatas, para a simulação por agentes continuar.
+ * As posições são uniformes (mundo bem misturado); idades e energias são amostradas dos organismos
+ * que existiam antes do salto. As estatísticas do motor só contam os passos simulados por agentes.
+ */
+public final class MeanFieldFastForward {
+
+    public static final int DEFAULT_WINDOW = 50;
+
+    private final SimulationEngine engine;
+    private final World world;
+    private final RateEstimator estimator;
+    private final RandomGenerator rng;
+
+    public MeanFieldFastForward(SimulationEngine engine, RandomGenerator rng) {
+        this(engine, DEFAULT_WINDOW, rng);
+    }
+
+    public MeanFieldFastForward(SimulationEngine engine, int window, RandomGenerator rng) {
+        this.engine = Objects.requireNonNull(engine);
+        this.world = engine.getWorld();
+        this.rng = Objects.requireNonNull(rng);
+        this.estimator = new RateEstimator(world, window);
+        engine.addListener(estimator);
+    }
+
+    public RateEstimator getEstimator() {
+        return estimator;
+    }
+
+    /** true quando a janela de ajuste já está cheia de passos simulados por agentes. */
+    public boolean isReady() {
+        return estimator.isReady();
+    }
+
+    /** Salta {@code steps} passos com o modelo de campo médio e re-materializa o mundo. */
+    public Result fastForward(int steps) {
+        if (steps <= 0) throw new IllegalArgumentException("steps deve ser > 0");
+        if (!isReady()) throw new IllegalStateException("Janela de ajuste incompleta: "
+                + estimator.getFilled() + "/" + estimator.getWindow() + " passos.");
+
+        long t0 = System.nanoTime();
+        MeanFieldModel model = estimator.fit();
+        long cells = (long) world.getWidth() * world.getHeight();
+        long[] before = {
+                world.getPopulation(Species.PLANT),
+                world.getPopulation(Species.SHEEP),
+                world.getPopulation(Species.WOLF)};
+        long[] after = before.clone();
+        model.advance(after, cells, steps, rng);
+
+        rematerialize(after);
+        int from = engine.getStepNumber();
+        engine.skipSteps(steps);
+        estimator.clear();
+        return new Result(from, steps, before, after, model, System.nanoTime() - t0);
+    }
+
+    // -------------------- RE-MATERIALIZAÇÃO --------------------
+
+    /** Substitui o conteúdo do mundo por {@code counts} organismos por espécie, em células uniformes. */
+    private void rematerialize(long[] counts) {
+        int nSpecies = counts.length;
+        List<List<Organism>> samples = new ArrayList<>();
+        for (int i = 0; i < nSpecies; i++) samples.add(new ArrayList<>());
+        for (Organism o : world.getOrganismsView()) {
+            if (o.isAlive()) samples.get(o.getSpecies().ordinal()).add(o);
+        }
+        for (int i = 0; i < nSpecies; i++) {
+            if (counts[i] > 0 && samples.get(i).isEmpty()) {
+                throw new IllegalStateException("Sem amostras para re-materializar " + Species.values()[i]);
+            }
+        }
+
+        world.clearAll();
+
+        // amostragem sequencial (Knuth, algoritmo S): cada célula entra com prob. faltam/restam,
+        // e a espécie sai com prob. proporcional ao que falta de cada uma; contagens exatas, memória O(1)
+        long[] left = counts.clone();
+        long need = 0;
+        for (long c : left) need += c;
+        int width = world.getWidth();
+        long cells = (long) width * world.getHeight();
+        for (long cell = 0; cell < cells && need > 0; cell++) {
+            if (rng.nextDouble() * (cells - cell) >= need) continue;
+            long pick = (long) (rng.nextDouble() * need);
+            int sp = 0;
+            while (pick >= left[sp]) pick -= left[sp++];
+            left[sp]--;
+            need--;
+
+            List<Organism> pool = samples.get(sp);
+            Organism template = pool.get(rng.nextInt(pool.size()));
+            Position pos = new Position((int) (cell % width), (int) (cell / width));
+            Organism o = template.createOffspring(pos);
+            o.restoreAge(template.getAge());
+            if (o instanceof Animal) ((Animal) o).restoreEnergy(((Animal) template).getEnergy());
+            world.place(o, pos);
+        }
+    }
+
+    // -------------------- RESULTADO --------------------
+
+    /** Resumo de um salto: contagens antes/depois e modelo usado. */
+    public static final class Result {
+        private final int fromStep;
+        private final int steps;
+        private final long[] before;
+        private final long[] after;
+        private final MeanFieldModel model;
+        private final long nanos;
+
+        Result(int fromStep, int steps, long[] before, long[] after, MeanFieldModel model, long nanos) {
+            this.fromStep = fromStep;
+            this.steps = steps;
+            this.before = before;
+            this.after = after;
+            this.model = model;
+            this.nanos = nanos;
+        }
+
+        public int getFromStep() { return fromStep; }
+        public int getSteps() { return steps; }
+        public long getBefore(Species s) { return before[s.ordinal()]; }
+        public long getAfter(Species s) { return after[s.ordinal()]; }
+        public MeanFieldModel getModel() { return model; }
+        public long getNanos() { return nanos; }
+
+        public String toTextLine() {
+            return "from=" + fromStep + " steps=" + steps
+                    + " plants=" + before[0] + "->" + after[0]
+                    + " sheep=" + before[1] + "->" + after[1]
+                    + " wolves=" + before[2] + "->" + after[2]
+                    + String.format(Locale.ROOT, " ms=%.1f", nanos / 1e6);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package sim;
+
+import java.util.Locale;
+import java.util.random.RandomGenerator;
+
+/**
+ * Modelo de campo médio (Lotka–Volterra estocástico em cadeia planta → ovelha → lobo) com as taxas
+ * ajustadas por {@link RateEstimator}. Avança só contagens, por tau-leaping com passo de um tick:
+ * em cada passo o nº de ocorrências de cada reação é Poisson com a propensão do início do passo.
+ * As densidades são contagens a dividir pelo nº de células.
+ */
+public final class MeanFieldModel {
+
+    /** Acima desta média a Poisson é aproximada pela normal. */
+    private static final double NORMAL_APPROX_MEAN = 30.0;
+
+    // plantas: nascem para células livres, morrem de velhas, são comidas e pisadas
+    private final double plantBirth;
+    private final double plantDeath;
+    private final double plantEaten;
+    private final double plantTrampled;
+    // ovelhas: nascem com comida (plantas), morrem, são predadas
+    private final double sheepBirth;
+    private final double sheepDeath;
+    private final double sheepEaten;
+    // lobos: nascem com presas (ovelhas), morrem
+    private final double wolfBirth;
+    private final double wolfDeath;
+
+    public MeanFieldModel(double plantBirth, double plantDeath, double plantEaten, double plantTrampled,
+                          double sheepBirth, double sheepDeath, double sheepEaten,
+                          double wolfBirth, double wolfDeath) {
+        this.plantBirth = plantBirth;
+        this.plantDeath = plantDeath;
+        this.plantEaten = plantEaten;
+        this.plantTrampled = plantTrampled;
+        this.sheepBirth = sheepBirth;
+        this.sheepDeath = sheepDeath;
+        this.sheepEaten = sheepEaten;
+        this.wolfBirth = wolfBirth;
+        this.wolfDeath = wolfDeath;
+    }
+
+    /**
+     * Avança {@code steps} passos a partir de {@code counts} = {plantas, ovelhas, lobos}, no próprio array.
+     * As perdas nunca passam da população e os nascimentos nunca passam das células livres.
+     */
+    public void advance(long[] counts, long cells, int steps, RandomGenerator rng) {
+        if (counts.length != 3) throw new IllegalArgumentException("Esperadas 3 contagens (plantas, ovelhas, lobos).");
+        long p = counts[0], s = counts[1], w = counts[2];
+        for (int t = 0; t < steps; t++) {
+            double free = cells - p - s - w;
+            double ps = (double) p * s / cells;
+            double pw = (double) p * w / cells;
+            double sw = (double) s * w / cells;
+
+            long lossP = Math.min(p, poisson(plantDeath * p, rng) + poisson(plantEaten * ps, rng)
+                    + poisson(plantTrampled * pw, rng));
+            long lossS = Math.min(s, poisson(sheepDeath * s, rng) + poisson(sheepEaten * sw, rng));
+            long lossW = Math.min(w, poisson(wolfDeath * w, rng));
+            long bornS = poisson(sheepBirth * ps, rng);
+            long bornW = poisson(wolfBirth * sw, rng);
+            long bornP = poisson(plantBirth * p * free / cells, rng);
+
+            p -= lossP;
+            s -= lossS;
+            w -= lossW;
+            long room = cells - p - s - w;
+            bornS = Math.min(bornS, room);
+            room -= bornS;
+            bornW = Math.min(bornW, room);
+            room -= bornW;
+            bornP = Math.min(bornP, room);
+            p += bornP;
+            s += bornS;
+            w += bornW;
+        }
+        counts[0] = p;
+        counts[1] = s;
+        counts[2] = w;
+    }
+
+    static long poisson(double mean, RandomGenerator rng) {
+        if (mean <= 0) return 0;
+        if (mean >= NORMAL_APPROX_MEAN) {
+            return Math.max(0L, Math.round(mean + Math.sqrt(mean) * rng.nextGaussian()));
+        }
+        double limit = Math.exp(-mean);
+        double prod = rng.nextDouble();
+        long k = 0;
+        while (prod > limit) {
+            prod *= rng.nextDouble();
+            k++;
+        }
+        return k;
+    }
+
+    public String toTextLine() {
+        return String.format(Locale.ROOT,
+                "plantBirth=%.4f plantDeath=%.4f plantEaten=%.4f plantTrampled=%.4f "
+                        + "sheepBirth=%.4f sheepDeath=%.4f sheepEaten=%.4f wolfBirth=%.4f wolfDeath=%.4f",
+                plantBirth, plantDeath, plantEaten, plantTrampled,
+                sheepBirth, sheepDeath, sheepEaten, wolfBirth, wolfDeath);
+    }
+}
@@ -0,0 +1,62 @@
+package sim;
+
+import java.util.Arrays;
+import model.Species;
+
+/**
+ * Período de atualização de cada camada (espécie). Período 1 é a resolução completa; período k > 1
+ * faz envelhecimento e reprodução da camada só a cada k passos, em atualizações de recuperação
+ * estatisticamente equivalentes. Só é permitido em espécies imóveis e sem par (as plantas): é um modo
+ * de aproximação explícito, cuja deriva face ao motor exato se mede com {@code bench.MultiRateDriftReport}.
+ */
+public final class PhaseSchedule {
+
+    /** Período por omissão da camada lenta no motor {@value Engines#MULTIRATE}. */
+    public static final int DEFAULT_SLOW_PERIOD = 4;
+
+    private final int[] period = new int[SpeciesTable.size()];
+
+    private PhaseSchedule() {
+        Arrays.fill(period, 1);
+    }
+
+    /** Todas as camadas a cada passo: o motor de referência. */
+    public static PhaseSchedule exact() {
+        return new PhaseSchedule();
+    }
+
+    /** Plantas a cada {@code plantPeriod} passos, animais a cada passo. */
+    public static PhaseSchedule multiRate(int plantPeriod) {
+        return exact().setPeriod(Species.PLANT, plantPeriod);
+    }
+
+    public PhaseSchedule setPeriod(Species s, int steps) {
+        if (steps <= 0) throw new IllegalArgumentException("Período inválido: " + steps);
+        period[s.ordinal()] = steps;
+        return this;
+    }
+
+    public int period(Species s) {
+        return period[s.ordinal()];
+    }
+
+    /** true se a camada é atualizada no passo {@code step}. */
+    public boolean isDue(Species s, int step) {
+        return step % period[s.ordinal()] == 0;
+    }
+
+    public boolean isExact() {
+        for (int p : period) if (p != 1) return false;
+        return true;
+    }
+
+    /** Rejeita períodos > 1 em camadas que se movem ou precisam de par (não têm recuperação em lote). */
+    void validate(SpeciesTable table) {
+        for (int i = 0; i < period.length; i++) {
+            Species s = SpeciesTable.species(i);
+            if (period[i] > 1 && (table.isMobile(s) || table.requiresMate(s))) {
+                throw new IllegalArgumentException("Só camadas imóveis e sem par podem ter período > 1: " + s);
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package sim;
+
+import java.util.Arrays;
+import model.Species;
+import world.World;
+
+/**
+ * Recolhe, numa janela deslizante de passos, as populações no início de cada passo e os eventos
+ * agregados (nascimentos, predação, pisoteio, mortes naturais), e ajusta com eles as taxas de um
+ * {@link MeanFieldModel}. É um {@link StepListener}; só vê passos simulados por agentes.
+ */
+public final class RateEstimator implements StepListener {
+
+    // colunas da janela
+    private static final int POP_P = 0, POP_S = 1, POP_W = 2;
+    private static final int BORN_P = 3, BORN_S = 4, BORN_W = 5;
+    private static final int EATEN_P = 6, TRAMPLED_P = 7, EATEN_S = 8;
+    private static final int DIED_P = 9, DIED_S = 10, DIED_W = 11;
+    private static final int COLUMNS = 12;
+
+    private final World world;
+    private final int window;
+    private final long[][] ring;   // [coluna][passo % window]
+    private final long[] current = new long[COLUMNS];
+    private int filled;
+    private int next;
+
+    public RateEstimator(World world, int window) {
+        if (window <= 0) throw new IllegalArgumentException("window deve ser > 0");
+        this.world = world;
+        this.window = window;
+        this.ring = new long[COLUMNS][window];
+        clear();
+    }
+
+    @Override
+    public void onEvents(int step, EventBatch batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            Species actor = batch.actor(i);
+            switch (batch.type(i)) {
+                case BIRTH:
+                    current[BORN_P + actor.ordinal()]++;
+                    break;
+                case PREDATION:
+                    current[actor == Species.SHEEP ? EATEN_P : EATEN_S]++;
+                    break;
+                case TRAMPLE:
+                    current[TRAMPLED_P]++;
+                    break;
+                case DEATH_OLD_AGE:
+                case DEATH_STARVATION:
+                    current[DIED_P + actor.ordinal()]++;
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    @Override
+    public void onStepEnd(int step) {
+        for (int c = 0; c < COLUMNS; c++) ring[c][next] = current[c];
+        next = (next + 1) % window;
+        if (filled < window) filled++;
+        startRow();
+    }
+
+    /** Esquece a janela e recomeça a partir do estado atual do mundo (ex.: depois de o substituir). */
+    public void clear() {
+        filled = 0;
+        next = 0;
+        startRow();
+    }
+
+    private void startRow() {
+        Arrays.fill(current, 0);
+        current[POP_P] = world.getPopulation(Species.PLANT);
+        current[POP_S] = world.getPopulation(Species.SHEEP);
+        current[POP_W] = world.getPopulation(Species.WOLF);
+    }
+
+    public int getWindow() { return window; }
+
+    /** Nº de passos já na janela. */
+    public int getFilled() { return filled; }
+
+    public boolean isReady() { return filled == window; }
+
+    /**
+     * Ajusta as taxas por razão de somas na janela: cada taxa é o total de eventos da reação a dividir
+     * pelo total da sua base (ação de massas com densidades, como em Lotka–Volterra).
+     */
+    public MeanFieldModel fit() {
+        if (filled == 0) throw new IllegalStateException("Sem passos observados para ajustar taxas.");
+        double cells = (double) world.getWidth() * world.getHeight();
+
+        double[] events = new double[COLUMNS];
+        double sumP = 0, sumS = 0, sumW = 0;
+        double sumPFree = 0, sumPS = 0, sumPW = 0, sumSW = 0;
+        for (int k = 0; k < filled; k++) {
+            for (int c = BORN_P; c < COLUMNS; c++) events[c] += ring[c][k];
+            double p = ring[POP_P][k], s = ring[POP_S][k], w = ring[POP_W][k];
+            sumP += p;
+            sumS += s;
+            sumW += w;
+            sumPFree += p * (cells - p - s - w) / cells;
+            sumPS += p * s / cells;
+            sumPW += p * w / cells;
+            sumSW += s * w / cells;
+        }
+
+        return new MeanFieldModel(
+                ratio(events[BORN_P], sumPFree), ratio(events[DIED_P], sumP),
+                ratio(events[EATEN_P], sumPS), ratio(events[TRAMPLED_P], sumPW),
+                ratio(events[BORN_S], sumPS), ratio(events[DIED_S], sumS), ratio(events[EATEN_S], sumSW),
+                ratio(events[BORN_W], sumSW), ratio(events[DIED_W], sumW));
+    }
+
+    private static double ratio(double num, double den) {
+        return den > 0 ? num / den : 0.0;
+    }
+}
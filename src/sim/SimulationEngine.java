@@ -1,283 +1,479 @@
 package sim;
 
 import java.util.*;
+import java.util.random.RandomGenerator;
 import model.*;
 import world.World;
+import world.WorldConfig;
 
-public final class SimulationEngine {
+/**
+ * Motor de referência: as variantes otimizadas comparam-se com este (ver {@link EquivalenceHarness}).
+ * Com um {@link PhaseSchedule} não exato torna-se o motor aproximado {@value Engines#MULTIRATE}.
+ */
+public final class SimulationEngine implements StepEngine {
 
     private final World world;
-    private final Random rng;
+    private final RandomGenerator rng;
+    private final SpeciesTable table;
+    private final PhaseSchedule schedule;
+    private final boolean[] due = new boolean[SpeciesTable.size()];   // camadas atualizadas neste passo
     private final SimulationStats stats;
+    private final CycleDetector cycleDetector = new CycleDetector();
+
+    private static final int EVENT_BUFFER_CAPACITY = 1 << 14;
+    private static final int GEOMETRIC_CAP = 1 << 30;   // muito acima de qualquer período; evita overflow
+    private static final Species[] RESTOCKED = { Species.SHEEP, Species.WOLF };
+    private final EventBatch events;
+    private final List<StepListener> listeners = new ArrayList<>();
+
+    // por ordinal de espécie: população do passo e encontros da fase de movimento
+    private final List<List<Organism>> bySpecies = new ArrayList<>();
+    private final List<Map<Position, List<Organism>>> meetings = new ArrayList<>();
 
     private int stepNumber = 0;
+    private AllocationMeter allocation;   // null = sem medição
+    private int reorderInterval = 0;      // 0 = ordem de inserção (referência)
+    private LineageTracker lineage;       // null = sem registo de linhagens
+    private double immigrationRate;       // imigrantes esperados por passo (0 = nenhum)
+    private double immigrantWolfShare;
+    private int restockCount;             // animais repostos por espécie extinta (0 = nenhum)
+
+    public SimulationEngine(World world, RandomGenerator rng) {
+        this(world, rng, SpeciesTable.standard());
+    }
 
-    public SimulationEngine(World world, Random rng) {
+    public SimulationEngine(World world, RandomGenerator rng, SpeciesTable table) {
+        this(world, rng, table, PhaseSchedule.exact());
+    }
+
+    public SimulationEngine(World world, RandomGenerator rng, SpeciesTable table, PhaseSchedule schedule) {
         this.world = Objects.requireNonNull(world);
         this.rng = Objects.requireNonNull(rng);
+        this.table = Objects.requireNonNull(table);
+        this.schedule = Objects.requireNonNull(schedule);
+        schedule.validate(table);
+        for (int i = 0; i < SpeciesTable.size(); i++) {
+            bySpecies.add(new ArrayList<>());
+            meetings.add(null);
+        }
         this.stats = new SimulationStats(world);
+        this.events = new EventBatch(EVENT_BUFFER_CAPACITY, world.getWidth());
+        listeners.add(stats);
     }
 
+    @Override
+    public String getName() {
+        return schedule.isExact() ? Engines.REFERENCE : Engines.MULTIRATE;
+    }
+
+    @Override
     public int getStepNumber() {
         return stepNumber;
     }
 
+    @Override
+    public World getWorld() {
+        return world;
+    }
+
+    @Override
     public SimulationStats getStats() {
         return stats;
     }
 
-    public void step() {
-        stepNumber++;
-
-        // 1) envelhecimento + energia (-1) + possíveis mortes (por idade/energia)
-        for (Organism o : world.getOrganismsSnapshot()) {
-            if (!o.isAlive()) continue;
-            o.onStepStart();
-        }
-
-        // Remove já os mortos naturais, para não haver interações com “cadáveres”
-        cleanupDeadNatural();
+    public SpeciesTable getSpeciesTable() {
+        return table;
+    }
 
-        // 2) movimento + alimentação
-        Map<Position, List<Sheep>> sheepMeetings = moveSheepPhase();
-        Map<Position, List<Wolf>> wolfMeetings = moveWolfPhase();
+    public PhaseSchedule getSchedule() {
+        return schedule;
+    }
 
-        // 3) reprodução
-        reproducePlants();
-        reproduceFromMeetingsSheep(sheepMeetings);
-        reproduceFromMeetingsWolves(wolfMeetings);
+    @Override
+    public CycleDetector getCycleDetector() {
+        return cycleDetector;
+    }
 
-        // segurança (normalmente não há mortos aqui, mas deixamos por robustez)
-        cleanupDeadNatural();
+    /**
+     * A cada {@code steps} passos reordena a iteração pela ordem Morton das células
+     * ({@link World#sortByMortonOrder()}); 0 desliga. Muda a dinâmica face à referência.
+     */
+    public void setReorderInterval(int steps) {
+        if (steps < 0) throw new IllegalArgumentException("steps deve ser >= 0");
+        this.reorderInterval = steps;
     }
 
-    // -------------------- MOVIMENTO: OVELHAS --------------------
+    public int getReorderInterval() {
+        return reorderInterval;
+    }
 
-    private Map<Position, List<Sheep>> moveSheepPhase() {
-        Map<Position, List<Sheep>> intents = new HashMap<>();
+    /** Avança o relógio sem simular: o mundo foi substituído por fora (ver {@link MeanFieldFastForward}). */
+    void skipSteps(int k) {
+        if (k < 0) throw new IllegalArgumentException("k deve ser >= 0");
+        stepNumber += k;
+        cycleDetector.reset();
+    }
 
-        for (Organism o : world.getOrganismsSnapshot()) {
-            if (!(o instanceof Sheep)) continue;
-            if (!o.isAlive()) continue;
+    @Override
+    public AllocationMeter enableAllocationMeter() {
+        if (allocation == null) allocation = new AllocationMeter();
+        return allocation;
+    }
 
-            Sheep s = (Sheep) o;
-            Position target = s.chooseMoveTarget(world, rng);
-            if (target == null || !world.isInside(target)) target = s.getPosition();
+    @Override
+    public AllocationMeter getAllocationMeter() {
+        return allocation;
+    }
 
-            intents.computeIfAbsent(target, k -> new ArrayList<>()).add(s);
-        }
+    /**
+     * Liga (ou, com {@code null}, desliga) o registo de linhagens: os organismos atuais das espécies
+     * seguidas entram como fundadores, e daí em diante cada nascimento e morte fica registado.
+     */
+    public void setLineageTracker(LineageTracker tracker) {
+        if (tracker != null) tracker.registerFounders(world.getOrganismsView(), stepNumber);
+        this.lineage = tracker;
+    }
 
-        // encontros (2+ tentaram o mesmo destino)
-        Map<Position, List<Sheep>> meetings = new HashMap<>();
-        for (var entry : intents.entrySet()) {
-            if (entry.getValue().size() >= 2) meetings.put(entry.getKey(), new ArrayList<>(entry.getValue()));
-        }
+    public LineageTracker getLineageTracker() {
+        return lineage;
+    }
 
-        // escolher 1 vencedor por célula
-        Map<Position, Sheep> winners = new HashMap<>();
-        for (var entry : intents.entrySet()) {
-            List<Sheep> contenders = entry.getValue();
-            winners.put(entry.getKey(), contenders.get(rng.nextInt(contenders.size())));
-        }
+    /**
+     * Imigração da configuração ({@link WorldConfig#getImmigrationRate()}): no fim de cada passo chegam
+     * Poisson(taxa) animais a células vazias sorteadas pelo índice do mundo; e, com
+     * {@link WorldConfig#getRestockCount()}, uma espécie animal que chegue a 0 recebe logo esse nº de
+     * imigrantes. Sem uma nem outra não se tira nenhum número aleatório (a dinâmica de referência fica
+     * igual).
+     */
+    public void setImmigration(WorldConfig cfg) {
+        this.immigrationRate = cfg.getImmigrationRate();
+        this.immigrantWolfShare = cfg.getImmigrantWolfShare();
+        this.restockCount = cfg.getRestockCount();
+        if (cfg.hasImmigration()) world.enableEmptyCellIndex();
+    }
 
-        // aplicar movimentos
-        for (var entry : winners.entrySet()) {
-            Position dest = entry.getKey();
-            Sheep s = entry.getValue();
-            if (!s.isAlive()) continue;
+    public double getImmigrationRate() {
+        return immigrationRate;
+    }
 
-            Position origin = s.getPosition();
-            if (origin.equals(dest)) continue;
+    @Override
+    public void addListener(StepListener l) {
+        listeners.add(Objects.requireNonNull(l));
+    }
 
-            Organism occupant = world.getAt(dest);
+    @Override
+    public void removeListener(StepListener l) {
+        listeners.remove(l);
+    }
 
-            if (occupant == null) {
-                world.moveToEmpty(s, dest);
-            } else if (occupant instanceof Plant) {
-                Organism removed = world.moveInto(s, dest); // remove planta do mundo
-                if (removed != null) {
-                    removed.die();
-                    stats.onPlantEatenBySheep();
-                }
-                s.eatPlant();
+    @Override
+    public void step() {
+        stepNumber++;
+        AllocationMeter meter = allocation;
+        if (meter != null) meter.beginStep(world.getOrganismsView().size());
+        if (reorderInterval > 0 && stepNumber % reorderInterval == 0) world.sortByMortonOrder();
+
+        // 1) passagem única: envelhecimento + energia (-1), mortos naturais retirados logo
+        //    (sem interações com “cadáveres”) e vivos repartidos por espécie
+        for (int i = 0; i < due.length; i++) {
+            bySpecies.get(i).clear();
+            due[i] = schedule.isDue(SpeciesTable.species(i), stepNumber);
+        }
+        world.sweep(this::ageAndBucket);
+        if (meter != null) meter.endPhase(AllocationMeter.Phase.SWEEP);
+
+        // 2) movimento + alimentação, espécie a espécie pela ordem da tabela; as presas comidas
+        //    ficam como lápides na lista do mundo e saem todas de uma vez no fim da fase
+        world.beginPhase();
+        try {
+            for (int i = 0; i < bySpecies.size(); i++) {
+                meetings.set(i, null);
+                Species sp = SpeciesTable.species(i);
+                if (table.isMobile(sp)) meetings.set(i, movePhase(sp, bySpecies.get(i)));
+            }
+        } finally {
+            world.commitPhase();
+        }
+        if (meter != null) meter.endPhase(AllocationMeter.Phase.MOVE);
+
+        // 3) reprodução: sem par a partir de cada organismo, com par a partir dos encontros;
+        //    as crias entram na lista do mundo em bloco no fim da fase
+        world.beginPhase();
+        try {
+            for (int i = 0; i < bySpecies.size(); i++) {
+                Species sp = SpeciesTable.species(i);
+                int period = schedule.period(sp);
+                if (!table.requiresMate(sp)) {
+                    if (period == 1) reproduceAlone(sp, bySpecies.get(i));
+                    else if (due[i]) reproduceCatchUp(sp, bySpecies.get(i), period);
+                } else if (meetings.get(i) != null) reproduceFromMeetings(sp, meetings.get(i));
             }
+        } finally {
+            world.commitPhase();
         }
+        // 4) imigração: animais novos em células vazias uniformes (O(1) por imigrante)
+        if (immigrationRate > 0) immigrate();
+        if (restockCount > 0) restock();
+        if (meter != null) meter.endPhase(AllocationMeter.Phase.REPRODUCE);
+
+        // algum morto que sobre é apanhado na passagem seguinte
+        flushEvents();
+        for (StepListener l : listeners) l.onStepEnd(stepNumber);
+        world.releaseRetired(); // já ninguém guarda os retirados deste passo
+
+        cycleDetector.observe(stepNumber, world.getStateHash(),
+                world.getPopulation(Species.PLANT),
+                world.getPopulation(Species.SHEEP),
+                world.getPopulation(Species.WOLF));
+        if (meter != null) {
+            meter.endPhase(AllocationMeter.Phase.LISTENERS);
+            meter.endStep();
+        }
+    }
 
-        return meetings;
+    /** Visitante da passagem única; devolve false para retirar o organismo do mundo. */
+    private boolean ageAndBucket(Organism o) {
+        int sp = o.getSpecies().ordinal();
+        if (o.isAlive() && due[sp]) {
+            int period = schedule.period(o.getSpecies());
+            if (period == 1) world.advanceAge(o);
+            else world.advanceAge(o, period);
+        }
+        if (!o.isAlive()) {
+            recordNaturalDeath(o);
+            return false;
+        }
+        if (due[sp]) bySpecies.get(sp).add(o);
+        return true;
     }
 
-    // -------------------- MOVIMENTO: LOBOS --------------------
+    // -------------------- MOVIMENTO (genérico) --------------------
 
-    private Map<Position, List<Wolf>> moveWolfPhase() {
-        Map<Position, List<Wolf>> intents = new HashMap<>();
+    private Map<Position, List<Organism>> movePhase(Species sp, List<Organism> movers) {
+        Map<Position, List<Organism>> intents = new HashMap<>();
+        Species prey = table.huntPrey(sp);
+        int huntRadius = table.huntRadius(sp);
 
-        for (Organism o : world.getOrganismsSnapshot()) {
-            if (!(o instanceof Wolf)) continue;
+        for (Organism o : movers) {
             if (!o.isAlive()) continue;
 
-            Wolf w = (Wolf) o;
-            Position target = w.chooseMoveTarget(world, rng);
-            if (target == null || !world.isInside(target)) target = w.getPosition();
+            Animal a = (Animal) o;
+            // nunca nulo nem fora da grelha: vizinhos da moldura, ou um passo em direção a uma presa
+            Position target = prey == null
+                    ? a.chooseMoveTarget(world, rng)
+                    : a.chooseMoveTarget(world, rng, prey, huntRadius);
 
-            intents.computeIfAbsent(target, k -> new ArrayList<>()).add(w);
+            intents.computeIfAbsent(target, k -> new ArrayList<>()).add(a);
         }
 
-        Map<Position, List<Wolf>> meetings = new HashMap<>();
+        // encontros (2+ tentaram o mesmo destino)
+        Map<Position, List<Organism>> found = new HashMap<>();
         for (var entry : intents.entrySet()) {
-            if (entry.getValue().size() >= 2) meetings.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+            if (entry.getValue().size() >= 2) found.put(entry.getKey(), new ArrayList<>(entry.getValue()));
         }
 
-        Map<Position, Wolf> winners = new HashMap<>();
+        // escolher 1 vencedor por célula
+        Map<Position, Organism> winners = new HashMap<>();
         for (var entry : intents.entrySet()) {
-            List<Wolf> contenders = entry.getValue();
+            List<Organism> contenders = entry.getValue();
             winners.put(entry.getKey(), contenders.get(rng.nextInt(contenders.size())));
         }
 
+        // aplicar movimentos conforme a matriz de interação
         for (var entry : winners.entrySet()) {
             Position dest = entry.getKey();
-            Wolf w = entry.getValue();
-            if (!w.isAlive()) continue;
+            Animal a = (Animal) entry.getValue();
+            if (!a.isAlive()) continue;
 
-            Position origin = w.getPosition();
+            Position origin = a.getPosition();
             if (origin.equals(dest)) continue;
 
             Organism occupant = world.getAt(dest);
 
             if (occupant == null) {
-                world.moveToEmpty(w, dest);
+                world.moveToEmpty(a, dest);
+                emit(EventType.MOVE, sp, null, origin, dest);
+                continue;
+            }
 
-            } else if (occupant instanceof Sheep) {
-                // só come se a ovelha estiver viva (por segurança)
-                if (occupant.isAlive()) {
-                    Organism removed = world.moveInto(w, dest);
+            Species victim = occupant.getSpecies();
+            switch (table.interaction(sp, victim)) {
+                case EAT -> {
+                    // só come se a presa estiver viva (por segurança)
+                    boolean edible = occupant.isAlive();
+                    Organism removed = world.moveInto(a, dest);
+                    emit(EventType.MOVE, sp, null, origin, dest);
+                    if (edible) {
+                        if (removed != null) {
+                            removed.die();
+                            if (lineage != null) lineage.death(removed, stepNumber, EventType.PREDATION);
+                            emit(EventType.PREDATION, sp, victim, dest, dest);
+                        }
+                        a.feed(table.energyGain(sp, victim));
+                    }
+                }
+                case TRAMPLE -> {
+                    // entra e o ocupante desaparece (não ganha energia)
+                    Organism removed = world.moveInto(a, dest);
+                    emit(EventType.MOVE, sp, null, origin, dest);
                     if (removed != null) {
                         removed.die();
-                        stats.onSheepEatenByWolf();
+                        if (lineage != null) lineage.death(removed, stepNumber, EventType.TRAMPLE);
+                        emit(EventType.TRAMPLE, sp, victim, dest, dest);
                     }
-                    w.eatSheep();
-                } else {
-                    // se por algum motivo ainda existir uma ovelha morta ali, não conta como comida
-                    world.moveInto(w, dest);
-                }
-
-            } else if (occupant instanceof Plant) {
-                // lobo entra e planta desaparece (não ganha energia)
-                Organism removed = world.moveInto(w, dest);
-                if (removed != null) {
-                    removed.die();
-                    stats.onPlantRemovedByWolf();
                 }
+                case BLOCKED -> { }
             }
         }
 
-        return meetings;
+        return found;
     }
 
-    // -------------------- REPRODUÇÃO: PLANTAS --------------------
+    // -------------------- REPRODUÇÃO SEM PAR (plantas) --------------------
 
-    private void reproducePlants() {
-        for (Organism o : world.getOrganismsSnapshot()) {
-            if (!(o instanceof Plant)) continue;
+    private void reproduceAlone(Species sp, List<Organism> parents) {
+        double p = table.reproProbability(sp);
+        for (Organism o : parents) {
             if (!o.isAlive()) continue;
 
-            Plant p = (Plant) o;
-            if (roll(p.reproductionProbability())) {
-                Position target = p.chooseReproductionTarget(world, rng);
+            if (roll(p)) {
+                Position target = chooseRandomEmptyAdjacent(o.getPosition());
                 if (target != null) {
-                    world.place(new Plant(target), target);
-                    stats.onPlantBorn();
+                    Organism child = world.newOffspring(o, target);
+                    world.place(child, target);
+                    if (lineage != null) lineage.birth(child, o, null, stepNumber);
+                    emit(EventType.BIRTH, sp, null, o.getPosition(), target);
                 }
             }
         }
     }
 
-    // -------------------- REPRODUÇÃO: OVELHAS (encontro) --------------------
-
-    private void reproduceFromMeetingsSheep(Map<Position, List<Sheep>> meetings) {
-        for (var entry : meetings.entrySet()) {
-            Position meetingCell = entry.getKey();
-            List<Sheep> contenders = entry.getValue();
-
-            int adultCount = 0;
-            for (Sheep s : contenders) {
-                if (s != null && s.isAlive() && s.isAdultForReproduction()) adultCount++;
-            }
-            if (adultCount < 2) continue;
+    /**
+     * Recuperação em lote de {@code period} passos de reprodução sem par: cada organismo tenta com
+     * tempos de espera geométricos de Bernoulli(p), e cada cria nascida a meio do lote fica com a idade
+     * e os passos que lhe restam (e pode reproduzir-se neles). Mesma distribuição de nascimentos que passo
+     * a passo, a menos da ordem e da competição por espaço dentro do lote.
+     */
+    private void reproduceCatchUp(Species sp, List<Organism> parents, int period) {
+        double p = table.reproProbability(sp);
+        if (p <= 0.0) return;
+        double logFail = Math.log1p(-Math.min(p, 1.0));
+        for (Organism o : parents) {
+            if (o.isAlive()) spawnOver(sp, o, period, logFail);
+        }
+    }
 
-            if (roll(Sheep.REPRO_PROBABILITY)) {
-                Position babyPos = chooseRandomEmptyAdjacent(meetingCell);
-                if (babyPos != null) {
-                    world.place(new Sheep(babyPos), babyPos);
-                    stats.onSheepBorn();
-                }
-            }
+    private void spawnOver(Species sp, Organism parent, int steps, double logFail) {
+        for (int t = geometric(logFail); t < steps; t += 1 + geometric(logFail)) {
+            Position target = chooseRandomEmptyAdjacent(parent.getPosition());
+            if (target == null) continue;
+
+            int left = steps - t - 1;
+            Organism child = world.newOffspring(parent, target);
+            child.restoreAge(left);
+            world.place(child, target);
+            if (lineage != null) lineage.birth(child, parent, null, stepNumber - left);
+            emit(EventType.BIRTH, sp, null, parent.getPosition(), target);
+            if (left > 0) spawnOver(sp, child, left, logFail);
         }
     }
 
-    // -------------------- REPRODUÇÃO: LOBOS (encontro) --------------------
+    /** Falhas antes do primeiro sucesso; {@code logFail} = ln(1 - p). */
+    private int geometric(double logFail) {
+        if (logFail == Double.NEGATIVE_INFINITY) return 0;
+        double g = Math.floor(Math.log(1.0 - rng.nextDouble()) / logFail);
+        return (int) Math.min(g, GEOMETRIC_CAP);
+    }
+
+    // -------------------- REPRODUÇÃO POR ENCONTRO (animais) --------------------
 
-    private void reproduceFromMeetingsWolves(Map<Position, List<Wolf>> meetings) {
-        for (var entry : meetings.entrySet()) {
+    private void reproduceFromMeetings(Species sp, Map<Position, List<Organism>> found) {
+        double p = table.reproProbability(sp);
+        for (var entry : found.entrySet()) {
             Position meetingCell = entry.getKey();
-            List<Wolf> contenders = entry.getValue();
+            List<Organism> contenders = entry.getValue();
 
+            // o pai é o primeiro adulto vivo: quem foi comido entretanto ou é juvenil não conta
+            Organism parent = null;
             int adultCount = 0;
-            for (Wolf w : contenders) {
-                if (w != null && w.isAlive() && w.isAdultForReproduction()) adultCount++;
+            for (Organism o : contenders) {
+                if (o != null && o.isAlive() && table.isAdult(o)) {
+                    if (parent == null) parent = o;
+                    adultCount++;
+                }
             }
             if (adultCount < 2) continue;
 
-            if (roll(Wolf.REPRO_PROBABILITY)) {
+            if (roll(p)) {
                 Position babyPos = chooseRandomEmptyAdjacent(meetingCell);
                 if (babyPos != null) {
-                    world.place(new Wolf(babyPos), babyPos);
-                    stats.onWolfBorn();
+                    Organism child = world.newOffspring(parent, babyPos);
+                    world.place(child, babyPos);
+                    if (lineage != null) lineage.birth(child, parent, mateOf(parent, contenders), stepNumber);
+                    emit(EventType.BIRTH, sp, null, meetingCell, babyPos);
                 }
             }
         }
     }
 
-    private Position chooseRandomEmptyAdjacent(Position center) {
-        List<Position> adj = new ArrayList<>(world.getAdjacent4(center));
-        Collections.shuffle(adj, rng);
-        for (Position p : adj) {
-            if (world.isEmpty(p)) return p;
+    /** O outro progenitor registado: o adulto vivo seguinte do encontro (nunca {@code parent}). */
+    private Organism mateOf(Organism parent, List<Organism> contenders) {
+        for (Organism o : contenders) {
+            if (o != parent && o != null && o.isAlive() && table.isAdult(o)) return o;
         }
         return null;
     }
 
-    // -------------------- LIMPEZA (mortes naturais) --------------------
+    private Position chooseRandomEmptyAdjacent(Position center) {
+        return world.randomAdjacent(center, rng, Objects::isNull);
+    }
 
-    private void cleanupDeadNatural() {
-        for (Organism o : world.getOrganismsSnapshot()) {
-            if (o == null) continue;
-            if (o.isAlive()) continue;
+    // -------------------- IMIGRAÇÃO --------------------
 
-            recordNaturalDeath(o);
-            world.remove(o);
+    private void immigrate() {
+        long n = MeanFieldModel.poisson(immigrationRate, rng);
+        if (n == 0) return;
+        for (Position p : world.sampleEmptyCells((int) Math.min(n, Integer.MAX_VALUE), rng)) {
+            arrive(rng.nextDouble() < immigrantWolfShare ? Species.WOLF : Species.SHEEP, p);
         }
     }
 
+    /** Repõe as espécies animais que ficaram a 0 neste passo (contam como imigração). */
+    private void restock() {
+        for (Species s : RESTOCKED) {
+            if (world.getPopulation(s) > 0) continue;
+            for (Position p : world.sampleEmptyCells(restockCount, rng)) arrive(s, p);
+        }
+    }
+
+    private void arrive(Species s, Position p) {
+        Organism o = world.newOrganism(s, p);
+        world.place(o, p);
+        if (lineage != null) lineage.registerFounder(o, stepNumber);
+        emit(EventType.IMMIGRATION, s, null, p, p);
+    }
+
+    // -------------------- MORTES NATURAIS --------------------
+
     private void recordNaturalDeath(Organism o) {
-        // causa por idade (idade > maxAge)
+        // causa por idade (idade > maxAge); caso contrário foi fome (energia <= 0)
         boolean diedByAge = o.getAge() > o.getMaxAge();
+        EventType cause = diedByAge ? EventType.DEATH_OLD_AGE : EventType.DEATH_STARVATION;
+        if (lineage != null) lineage.death(o, stepNumber, cause);
+        emit(cause, o.getSpecies(), null, o.getPosition(), o.getPosition());
+    }
 
-        if (o instanceof Plant) {
-            // planta só morre naturalmente por idade (no nosso modelo)
-            stats.onPlantDiedOldAge();
-            return;
-        }
+    // -------------------- EVENTOS --------------------
 
-        if (o instanceof Sheep) {
-            if (diedByAge) stats.onSheepDiedOldAge();
-            else stats.onSheepDiedStarvation(); // energia <= 0
-            return;
-        }
+    private void emit(EventType type, Species actor, Species target, Position from, Position to) {
+        if (events.isFull()) flushEvents();
+        int w = world.getWidth();
+        events.add(type, actor, target, from.y() * w + from.x(), to.y() * w + to.x());
+    }
 
-        if (o instanceof Wolf) {
-            if (diedByAge) stats.onWolfDiedOldAge();
-            else stats.onWolfDiedStarvation();
-        }
+    private void flushEvents() {
+        for (StepListener l : listeners) l.onEvents(stepNumber, events);
+        events.clear();
     }
 
     private boolean roll(double p) {
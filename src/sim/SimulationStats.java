@@ -1,10 +1,17 @@
 package sim;
 
+import java.util.concurrent.atomic.LongAdder;
 import model.Species;
 import world.World;
 
-/** Estatísticas com detalhe de eventos (nascimentos, predação, mortes naturais). */
-public final class SimulationStats {
+/**
+ * Estatísticas com detalhe de eventos (nascimentos, predação, mortes naturais).
+ * É um {@link StepListener} como outro qualquer: o motor só emite eventos.
+ * Os contadores são {@link LongAdder}: podem ser incrementados por vários workers sem contenção
+ * e somados na leitura. Para leituras consistentes a partir de outra thread usa-se
+ * {@link #getLatestSnapshot()}, publicado pelo motor no fim de cada passo.
+ */
+public final class SimulationStats implements StepListener {
 
     // Iniciais
     private final long initialPlants;
@@ -12,80 +19,139 @@ public final class SimulationStats {
     private final long initialWolves;
 
     // Nascimentos por reprodução
-    private long bornPlants;
-    private long bornSheep;
-    private long bornWolves;
+    private final LongAdder bornPlants = new LongAdder();
+    private final LongAdder bornSheep = new LongAdder();
+    private final LongAdder bornWolves = new LongAdder();
 
     // Interações
-    private long plantsEatenBySheep;
-    private long sheepEatenByWolves;
-    private long plantsRemovedByWolves; // se o lobo entra numa planta e a planta desaparece
+    private final LongAdder plantsEatenBySheep = new LongAdder();
+    private final LongAdder sheepEatenByWolves = new LongAdder();
+    private final LongAdder plantsRemovedByWolves = new LongAdder(); // se o lobo entra numa planta e a planta desaparece
 
     // Mortes naturais
-    private long plantsDiedOldAge;
-    private long sheepDiedOldAge;
-    private long sheepDiedStarvation;
-    private long wolvesDiedOldAge;
-    private long wolvesDiedStarvation;
+    private final LongAdder plantsDiedOldAge = new LongAdder();
+    private final LongAdder sheepDiedOldAge = new LongAdder();
+    private final LongAdder sheepDiedStarvation = new LongAdder();
+    private final LongAdder wolvesDiedOldAge = new LongAdder();
+    private final LongAdder wolvesDiedStarvation = new LongAdder();
+
+    // Imigração (animais chegados de fora, ver SimulationEngine#setImmigration)
+    private final LongAdder immigratedSheep = new LongAdder();
+    private final LongAdder immigratedWolves = new LongAdder();
+
+    // Última fotografia publicada (traz as variações face à anterior)
+    private volatile StatsSnapshot latest;
 
     public SimulationStats(World world) {
         this.initialPlants = world.countSpecies(Species.PLANT);
         this.initialSheep  = world.countSpecies(Species.SHEEP);
         this.initialWolves = world.countSpecies(Species.WOLF);
+        this.latest = snapshot(0);
+    }
+
+    // ---------- eventos do motor ----------
+
+    @Override
+    public void onEvents(int step, EventBatch batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            Species actor = batch.actor(i);
+            switch (batch.type(i)) {
+                case BIRTH:
+                    if (actor == Species.PLANT) bornPlants.increment();
+                    else if (actor == Species.SHEEP) bornSheep.increment();
+                    else bornWolves.increment();
+                    break;
+                case PREDATION:
+                    if (actor == Species.SHEEP) plantsEatenBySheep.increment();
+                    else sheepEatenByWolves.increment();
+                    break;
+                case TRAMPLE:
+                    plantsRemovedByWolves.increment();
+                    break;
+                case DEATH_OLD_AGE:
+                    if (actor == Species.PLANT) plantsDiedOldAge.increment();
+                    else if (actor == Species.SHEEP) sheepDiedOldAge.increment();
+                    else wolvesDiedOldAge.increment();
+                    break;
+                case DEATH_STARVATION:
+                    if (actor == Species.SHEEP) sheepDiedStarvation.increment();
+                    else wolvesDiedStarvation.increment();
+                    break;
+                case IMMIGRATION:
+                    if (actor == Species.SHEEP) immigratedSheep.increment();
+                    else immigratedWolves.increment();
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /** Os contadores estão estáveis no fim do passo: publica a fotografia. */
+    @Override
+    public void onStepEnd(int step) {
+        publish(step);
     }
 
-    // ---------- eventos "nascimentos" ----------
-    public void onPlantBorn() { bornPlants++; }
-    public void onSheepBorn() { bornSheep++; }
-    public void onWolfBorn()  { bornWolves++; }
+    // ---------- fotografias ----------
 
-    // ---------- eventos de interação ----------
-    public void onPlantEatenBySheep() { plantsEatenBySheep++; }
-    public void onSheepEatenByWolf()  { sheepEatenByWolves++; }
-    public void onPlantRemovedByWolf() { plantsRemovedByWolves++; }
+    /** Soma os contadores agora; só é consistente se ninguém estiver a escrever. */
+    public StatsSnapshot snapshot(int step) {
+        return snapshot(step, null);
+    }
 
-    // ---------- mortes naturais ----------
-    public void onPlantDiedOldAge() { plantsDiedOldAge++; }
+    private StatsSnapshot snapshot(int step, StatsSnapshot previous) {
+        return new StatsSnapshot(step, previous,
+                initialPlants, initialSheep, initialWolves,
+                bornPlants.sum(), bornSheep.sum(), bornWolves.sum(),
+                plantsEatenBySheep.sum(), sheepEatenByWolves.sum(), plantsRemovedByWolves.sum(),
+                plantsDiedOldAge.sum(), sheepDiedOldAge.sum(), sheepDiedStarvation.sum(),
+                wolvesDiedOldAge.sum(), wolvesDiedStarvation.sum(),
+                immigratedSheep.sum(), immigratedWolves.sum());
+    }
 
-    public void onSheepDiedOldAge() { sheepDiedOldAge++; }
-    public void onSheepDiedStarvation() { sheepDiedStarvation++; }
+    private void publish(int step) {
+        latest = snapshot(step, latest);
+    }
 
-    public void onWolfDiedOldAge() { wolvesDiedOldAge++; }
-    public void onWolfDiedStarvation() { wolvesDiedStarvation++; }
+    public StatsSnapshot getLatestSnapshot() { return latest; }
 
     // ---------- getters ----------
     public long getInitialPlants() { return initialPlants; }
     public long getInitialSheep()  { return initialSheep; }
     public long getInitialWolves() { return initialWolves; }
 
-    public long getBornPlants() { return bornPlants; }
-    public long getBornSheep()  { return bornSheep; }
-    public long getBornWolves() { return bornWolves; }
+    public long getBornPlants() { return bornPlants.sum(); }
+    public long getBornSheep()  { return bornSheep.sum(); }
+    public long getBornWolves() { return bornWolves.sum(); }
+
+    public long getPlantsEatenBySheep() { return plantsEatenBySheep.sum(); }
+    public long getSheepEatenByWolves() { return sheepEatenByWolves.sum(); }
+    public long getPlantsRemovedByWolves() { return plantsRemovedByWolves.sum(); }
 
-    public long getPlantsEatenBySheep() { return plantsEatenBySheep; }
-    public long getSheepEatenByWolves() { return sheepEatenByWolves; }
-    public long getPlantsRemovedByWolves() { return plantsRemovedByWolves; }
+    public long getPlantsDiedOldAge() { return plantsDiedOldAge.sum(); }
+    public long getSheepDiedOldAge()  { return sheepDiedOldAge.sum(); }
+    public long getSheepDiedStarvation() { return sheepDiedStarvation.sum(); }
+    public long getWolvesDiedOldAge() { return wolvesDiedOldAge.sum(); }
+    public long getWolvesDiedStarvation() { return wolvesDiedStarvation.sum(); }
 
-    public long getPlantsDiedOldAge() { return plantsDiedOldAge; }
-    public long getSheepDiedOldAge()  { return sheepDiedOldAge; }
-    public long getSheepDiedStarvation() { return sheepDiedStarvation; }
-    public long getWolvesDiedOldAge() { return wolvesDiedOldAge; }
-    public long getWolvesDiedStarvation() { return wolvesDiedStarvation; }
+    public long getImmigratedSheep()  { return immigratedSheep.sum(); }
+    public long getImmigratedWolves() { return immigratedWolves.sum(); }
 
     // Totais úteis (se quiseres mostrar)
-    public long getTotalCreatedPlants() { return initialPlants + bornPlants; }
-    public long getTotalCreatedSheep()  { return initialSheep + bornSheep; }
-    public long getTotalCreatedWolves() { return initialWolves + bornWolves; }
+    public long getTotalCreatedPlants() { return initialPlants + getBornPlants(); }
+    public long getTotalCreatedSheep()  { return initialSheep + getBornSheep() + getImmigratedSheep(); }
+    public long getTotalCreatedWolves() { return initialWolves + getBornWolves() + getImmigratedWolves(); }
 
     public long getTotalDiedPlants() {
-        return plantsEatenBySheep + plantsRemovedByWolves + plantsDiedOldAge;
+        return getPlantsEatenBySheep() + getPlantsRemovedByWolves() + getPlantsDiedOldAge();
     }
 
     public long getTotalDiedSheep() {
-        return sheepEatenByWolves + sheepDiedOldAge + sheepDiedStarvation;
+        return getSheepEatenByWolves() + getSheepDiedOldAge() + getSheepDiedStarvation();
     }
 
     public long getTotalDiedWolves() {
-        return wolvesDiedOldAge + wolvesDiedStarvation;
+        return getWolvesDiedOldAge() + getWolvesDiedStarvation();
     }
 }
@@ -0,0 +1,37 @@
+package sim;
+
+/** Vista JMX das estatísticas (lidas da última fotografia publicada, sem pausar o motor). */
+public interface SimulationStatsMXBean {
+    int getStep();
+
+    long getBornPlants();
+    long getBornSheep();
+    long getBornWolves();
+
+    long getPlantsEatenBySheep();
+    long getSheepEatenByWolves();
+    long getPlantsRemovedByWolves();
+
+    long getPlantsDiedOldAge();
+    long getSheepDiedOldAge();
+    long getSheepDiedStarvation();
+    long getWolvesDiedOldAge();
+    long getWolvesDiedStarvation();
+
+    long getImmigratedSheep();
+    long getImmigratedWolves();
+
+    /** Taxas médias por passo desde o início. */
+    double getBirthsPerStep();
+    double getPredationPerStep();
+    double getStarvationPerStep();
+    double getImmigrationPerStep();
+
+    /** Variação no último passo publicado. */
+    long getLastStepBirths();
+    long getLastStepPredation();
+    long getLastStepStarvation();
+
+    /** Estado completo numa linha "chave=valor". */
+    String getSnapshotText();
+}
@@ -0,0 +1,100 @@
+package sim;
+
+import java.lang.management.ManagementFactory;
+import java.util.Objects;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * MBean que expõe as estatísticas da simulação atual. O motor pode ser trocado (reset) sem
+ * voltar a registar: basta chamar {@link #attach(SimulationStats)}.
+ */
+public final class SimulationStatsMonitor implements SimulationStatsMXBean {
+
+    private volatile SimulationStats stats;
+    private ObjectName registeredName;
+
+    public SimulationStatsMonitor(SimulationStats stats) {
+        this.stats = Objects.requireNonNull(stats);
+    }
+
+    public void attach(SimulationStats stats) {
+        this.stats = Objects.requireNonNull(stats);
+    }
+
+    /** Regista no MBeanServer da plataforma como {@code sim:type=SimulationStats,name=<name>}. */
+    public void register(String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName on = new ObjectName("sim:type=SimulationStats,name=" + ObjectName.quote(name));
+            if (server.isRegistered(on)) server.unregisterMBean(on);
+            server.registerMBean(this, on);
+            registeredName = on;
+        } catch (JMException e) {
+            throw new IllegalStateException("Falha ao registar MBean: " + name, e);
+        }
+    }
+
+    public void unregister() {
+        if (registeredName == null) return;
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+        } catch (JMException e) {
+            throw new IllegalStateException("Falha ao remover MBean: " + registeredName, e);
+        } finally {
+            registeredName = null;
+        }
+    }
+
+    private StatsSnapshot latest() { return stats.getLatestSnapshot(); }
+
+    @Override public int getStep() { return latest().getStep(); }
+
+    @Override public long getBornPlants() { return latest().getBornPlants(); }
+    @Override public long getBornSheep() { return latest().getBornSheep(); }
+    @Override public long getBornWolves() { return latest().getBornWolves(); }
+
+    @Override public long getPlantsEatenBySheep() { return latest().getPlantsEatenBySheep(); }
+    @Override public long getSheepEatenByWolves() { return latest().getSheepEatenByWolves(); }
+    @Override public long getPlantsRemovedByWolves() { return latest().getPlantsRemovedByWolves(); }
+
+    @Override public long getPlantsDiedOldAge() { return latest().getPlantsDiedOldAge(); }
+    @Override public long getSheepDiedOldAge() { return latest().getSheepDiedOldAge(); }
+    @Override public long getSheepDiedStarvation() { return latest().getSheepDiedStarvation(); }
+    @Override public long getWolvesDiedOldAge() { return latest().getWolvesDiedOldAge(); }
+    @Override public long getWolvesDiedStarvation() { return latest().getWolvesDiedStarvation(); }
+
+    @Override public long getImmigratedSheep() { return latest().getImmigratedSheep(); }
+    @Override public long getImmigratedWolves() { return latest().getImmigratedWolves(); }
+
+    @Override
+    public double getBirthsPerStep() {
+        StatsSnapshot s = latest();
+        return s.getStep() == 0 ? 0.0 : (double) s.getTotalBorn() / s.getStep();
+    }
+
+    @Override
+    public double getPredationPerStep() {
+        StatsSnapshot s = latest();
+        return s.getStep() == 0 ? 0.0 : (double) s.getTotalPredation() / s.getStep();
+    }
+
+    @Override
+    public double getStarvationPerStep() {
+        StatsSnapshot s = latest();
+        return s.getStep() == 0 ? 0.0 : (double) s.getTotalStarvation() / s.getStep();
+    }
+
+    @Override
+    public double getImmigrationPerStep() {
+        StatsSnapshot s = latest();
+        return s.getStep() == 0 ? 0.0 : (double) s.getTotalImmigrated() / s.getStep();
+    }
+
+    @Override public long getLastStepBirths() { return latest().getLastStepBorn(); }
+    @Override public long getLastStepPredation() { return latest().getLastStepPredation(); }
+    @Override public long getLastStepStarvation() { return latest().getLastStepStarvation(); }
+
+    @Override public String getSnapshotText() { return latest().toTextLine(); }
+}
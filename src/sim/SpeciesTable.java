@@ -0,0 +1,142 @@
+package sim;
+
+import model.Animal;
+import model.FoodWeb;
+import model.Interaction;
+import model.Organism;
+import model.Species;
+
+/**
+ * Parâmetros por espécie usados pelo motor, em arrays densos indexados por ordinal.
+ * Parte dos valores base de {@link Species} e {@link FoodWeb}; os numéricos podem ser
+ * alterados (ex.: pesquisa de parâmetros) sem tocar nas classes do modelo.
+ */
+public final class SpeciesTable {
+
+    private static final Species[] SPECIES = Species.values();
+
+    private final boolean[] mobile;
+    private final boolean[] requiresMate;
+    private final double[] reproProbability;
+    private final int[] minReproAge;
+    private final int[] minReproEnergy;
+    private final Interaction[][] interaction;
+    private final int[][] energyGain;
+
+    // caça dirigida (desligada por omissão): presa e raio por espécie
+    private final Species[] huntPrey;
+    private final int[] huntRadius;
+
+    private SpeciesTable() {
+        int n = SPECIES.length;
+        mobile = new boolean[n];
+        requiresMate = new boolean[n];
+        reproProbability = new double[n];
+        minReproAge = new int[n];
+        minReproEnergy = new int[n];
+        interaction = new Interaction[n][n];
+        energyGain = new int[n][n];
+        huntPrey = new Species[n];
+        huntRadius = new int[n];
+
+        for (Species s : SPECIES) {
+            int i = s.ordinal();
+            mobile[i] = s.isMobile();
+            requiresMate[i] = s.requiresMate();
+            reproProbability[i] = s.reproProbability();
+            minReproAge[i] = s.minReproAge();
+            minReproEnergy[i] = s.minReproEnergy();
+            for (Species t : SPECIES) {
+                interaction[i][t.ordinal()] = FoodWeb.interaction(s, t);
+                energyGain[i][t.ordinal()] = FoodWeb.energyGain(s, t);
+            }
+        }
+    }
+
+    /** Tabela com os valores base do modelo. */
+    public static SpeciesTable standard() {
+        return new SpeciesTable();
+    }
+
+    public SpeciesTable copy() {
+        SpeciesTable t = new SpeciesTable();
+        for (int i = 0; i < SPECIES.length; i++) {
+            t.reproProbability[i] = reproProbability[i];
+            t.minReproAge[i] = minReproAge[i];
+            t.minReproEnergy[i] = minReproEnergy[i];
+            System.arraycopy(energyGain[i], 0, t.energyGain[i], 0, SPECIES.length);
+            t.huntPrey[i] = huntPrey[i];
+            t.huntRadius[i] = huntRadius[i];
+        }
+        return t;
+    }
+
+    static Species species(int ordinal) { return SPECIES[ordinal]; }
+
+    static int size() { return SPECIES.length; }
+
+    // ---------- leitura (motor) ----------
+
+    public boolean isMobile(Species s) { return mobile[s.ordinal()]; }
+    public boolean requiresMate(Species s) { return requiresMate[s.ordinal()]; }
+    public double reproProbability(Species s) { return reproProbability[s.ordinal()]; }
+    public int minReproAge(Species s) { return minReproAge[s.ordinal()]; }
+    public int minReproEnergy(Species s) { return minReproEnergy[s.ordinal()]; }
+
+    public Interaction interaction(Species mover, Species occupant) {
+        return interaction[mover.ordinal()][occupant.ordinal()];
+    }
+
+    public int energyGain(Species eater, Species prey) {
+        return energyGain[eater.ordinal()][prey.ordinal()];
+    }
+
+    /** Presa perseguida pela espécie, ou null se a caça dirigida estiver desligada. */
+    public Species huntPrey(Species s) { return huntPrey[s.ordinal()]; }
+    public int huntRadius(Species s) { return huntRadius[s.ordinal()]; }
+
+    /**
+     * Adulto para reprodução por encontro, com os limiares afinados desta tabela (a única fonte:
+     * os organismos não sabem se são adultos). Só faz sentido para espécies que precisam de par.
+     */
+    public boolean isAdult(Organism o) {
+        int i = o.getSpecies().ordinal();
+        return o.getAge() >= minReproAge[i] && ((Animal) o).getEnergy() >= minReproEnergy[i];
+    }
+
+    // ---------- afinação ----------
+
+    public void setReproProbability(Species s, double p) {
+        if (p < 0 || p > 1) throw new IllegalArgumentException("Probabilidade inválida: " + p);
+        reproProbability[s.ordinal()] = p;
+    }
+
+    public void setMinReproAge(Species s, int age) {
+        if (age < 0) throw new IllegalArgumentException("Idade inválida: " + age);
+        minReproAge[s.ordinal()] = age;
+    }
+
+    public void setMinReproEnergy(Species s, int energy) {
+        if (energy < 0) throw new IllegalArgumentException("Energia inválida: " + energy);
+        minReproEnergy[s.ordinal()] = energy;
+    }
+
+    /** Liga a caça dirigida de {@code hunter} a {@code prey} dentro de {@code radius}; raio 0 desliga. */
+    public void setHunting(Species hunter, Species prey, int radius) {
+        if (radius < 0) throw new IllegalArgumentException("Raio inválido: " + radius);
+        if (radius > 0 && interaction(hunter, prey) != Interaction.EAT) {
+            throw new IllegalArgumentException(hunter + " não come " + prey);
+        }
+        huntPrey[hunter.ordinal()] = radius == 0 ? null : prey;
+        huntRadius[hunter.ordinal()] = radius;
+    }
+
+    /** Só altera ligações que já são {@link Interaction#EAT}: a estrutura da teia é fixa. */
+    public void setEnergyGain(Species eater, Species prey, int gain) {
+        if (interaction(eater, prey) != Interaction.EAT) {
+            throw new IllegalArgumentException(eater + " não come " + prey);
+        }
+        if (gain < 0) throw new IllegalArgumentException("Ganho inválido: " + gain);
+        energyGain[eater.ordinal()][prey.ordinal()] = gain;
+    }
+}
@@ -0,0 +1,107 @@
+package sim;
+
+/** Fotografia imutável de {@link SimulationStats} no fim de um passo. */
+public final class StatsSnapshot {
+    private final int step;
+
+    private final long initialPlants;
+    private final long initialSheep;
+    private final long initialWolves;
+
+    private final long bornPlants;
+    private final long bornSheep;
+    private final long bornWolves;
+
+    private final long plantsEatenBySheep;
+    private final long sheepEatenByWolves;
+    private final long plantsRemovedByWolves;
+
+    private final long plantsDiedOldAge;
+    private final long sheepDiedOldAge;
+    private final long sheepDiedStarvation;
+    private final long wolvesDiedOldAge;
+    private final long wolvesDiedStarvation;
+
+    private final long immigratedSheep;
+    private final long immigratedWolves;
+
+    // Variação face à fotografia anterior (0 se não houver)
+    private final long lastStepBorn;
+    private final long lastStepPredation;
+    private final long lastStepStarvation;
+
+    StatsSnapshot(int step, StatsSnapshot previous,
+                  long initialPlants, long initialSheep, long initialWolves,
+                  long bornPlants, long bornSheep, long bornWolves,
+                  long plantsEatenBySheep, long sheepEatenByWolves, long plantsRemovedByWolves,
+                  long plantsDiedOldAge, long sheepDiedOldAge, long sheepDiedStarvation,
+                  long wolvesDiedOldAge, long wolvesDiedStarvation,
+                  long immigratedSheep, long immigratedWolves) {
+        this.step = step;
+        this.initialPlants = initialPlants;
+        this.initialSheep = initialSheep;
+        this.initialWolves = initialWolves;
+        this.bornPlants = bornPlants;
+        this.bornSheep = bornSheep;
+        this.bornWolves = bornWolves;
+        this.plantsEatenBySheep = plantsEatenBySheep;
+        this.sheepEatenByWolves = sheepEatenByWolves;
+        this.plantsRemovedByWolves = plantsRemovedByWolves;
+        this.plantsDiedOldAge = plantsDiedOldAge;
+        this.sheepDiedOldAge = sheepDiedOldAge;
+        this.sheepDiedStarvation = sheepDiedStarvation;
+        this.wolvesDiedOldAge = wolvesDiedOldAge;
+        this.wolvesDiedStarvation = wolvesDiedStarvation;
+        this.immigratedSheep = immigratedSheep;
+        this.immigratedWolves = immigratedWolves;
+
+        this.lastStepBorn = previous == null ? 0 : getTotalBorn() - previous.getTotalBorn();
+        this.lastStepPredation = previous == null ? 0 : getTotalPredation() - previous.getTotalPredation();
+        this.lastStepStarvation = previous == null ? 0 : getTotalStarvation() - previous.getTotalStarvation();
+    }
+
+    public int getStep() { return step; }
+
+    public long getInitialPlants() { return initialPlants; }
+    public long getInitialSheep()  { return initialSheep; }
+    public long getInitialWolves() { return initialWolves; }
+
+    public long getBornPlants() { return bornPlants; }
+    public long getBornSheep()  { return bornSheep; }
+    public long getBornWolves() { return bornWolves; }
+
+    public long getPlantsEatenBySheep() { return plantsEatenBySheep; }
+    public long getSheepEatenByWolves() { return sheepEatenByWolves; }
+    public long getPlantsRemovedByWolves() { return plantsRemovedByWolves; }
+
+    public long getPlantsDiedOldAge() { return plantsDiedOldAge; }
+    public long getSheepDiedOldAge()  { return sheepDiedOldAge; }
+    public long getSheepDiedStarvation() { return sheepDiedStarvation; }
+    public long getWolvesDiedOldAge() { return wolvesDiedOldAge; }
+    public long getWolvesDiedStarvation() { return wolvesDiedStarvation; }
+
+    public long getImmigratedSheep()  { return immigratedSheep; }
+    public long getImmigratedWolves() { return immigratedWolves; }
+
+    public long getTotalBorn() { return bornPlants + bornSheep + bornWolves; }
+    public long getTotalPredation() { return plantsEatenBySheep + sheepEatenByWolves + plantsRemovedByWolves; }
+    public long getTotalStarvation() { return sheepDiedStarvation + wolvesDiedStarvation; }
+    public long getTotalOldAge() { return plantsDiedOldAge + sheepDiedOldAge + wolvesDiedOldAge; }
+    public long getTotalImmigrated() { return immigratedSheep + immigratedWolves; }
+
+    public long getLastStepBorn() { return lastStepBorn; }
+    public long getLastStepPredation() { return lastStepPredation; }
+    public long getLastStepStarvation() { return lastStepStarvation; }
+
+    /** Uma linha "chave=valor" (saída headless / endpoints de texto). */
+    public String toTextLine() {
+        return "step=" + step
+                + " bornPlants=" + bornPlants + " bornSheep=" + bornSheep + " bornWolves=" + bornWolves
+                + " plantsEatenBySheep=" + plantsEatenBySheep + " sheepEatenByWolves=" + sheepEatenByWolves
+                + " plantsRemovedByWolves=" + plantsRemovedByWolves
+                + " plantsDiedOldAge=" + plantsDiedOldAge
+                + " sheepDiedOldAge=" + sheepDiedOldAge + " sheepDiedStarvation=" + sheepDiedStarvation
+                + " wolvesDiedOldAge=" + wolvesDiedOldAge + " wolvesDiedStarvation=" + wolvesDiedStarvation
+                + " immigratedSheep=" + immigratedSheep + " immigratedWolves=" + immigratedWolves;
+    }
+}
@@ -0,0 +1,55 @@
+package sim;
+
+import world.World;
+
+/**
+ * Contrato de um motor de simulação. {@link SimulationEngine} é a implementação de referência;
+ * variantes otimizadas registam-se em {@link Engines} e validam-se com {@link EquivalenceHarness}.
+ */
+public interface StepEngine {
+
+    /** Nome com que o motor está registado em {@link Engines}. */
+    String getName();
+
+    void step();
+
+    /** Corre até {@code n} passos, verificando {@code stop} antes de cada um; devolve quantos correram. */
+    default int stepN(int n, StopCondition stop) {
+        int ran = 0;
+        while (ran < n && !stop.shouldStop(this)) {
+            step();
+            ran++;
+        }
+        return ran;
+    }
+
+    int getStepNumber();
+
+    World getWorld();
+
+    SimulationStats getStats();
+
+    CycleDetector getCycleDetector();
+
+    /** true se o mundo entrou num ciclo exato ou as populações pararam. */
+    default boolean isDegenerate() {
+        return getCycleDetector().getStatus() != CycleDetector.Status.RUNNING;
+    }
+
+    /**
+     * Liga a medição de bytes alocados por passo e por fase (ver {@link AllocationMeter}) e devolve o
+     * medidor; motores que não a suportam devolvem null (quem chama tem de verificar).
+     */
+    default AllocationMeter enableAllocationMeter() {
+        return null;
+    }
+
+    /** Medidor ligado com {@link #enableAllocationMeter()}, ou null. */
+    default AllocationMeter getAllocationMeter() {
+        return null;
+    }
+
+    void addListener(StepListener l);
+
+    void removeListener(StepListener l);
+}
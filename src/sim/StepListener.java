@@ -0,0 +1,14 @@
+package sim;
+
+/**
+ * Observador dos eventos do motor. Os eventos chegam em lotes: no fim de cada passo
+ * e, se o buffer encher a meio, também antes disso. O lote só é válido durante a chamada.
+ */
+public interface StepListener {
+
+    /** Um lote de eventos do passo {@code step} (pode haver vários por passo). */
+    void onEvents(int step, EventBatch batch);
+
+    /** Chamado uma vez no fim de cada passo, depois do último lote. */
+    default void onStepEnd(int step) {}
+}
@@ -0,0 +1,29 @@
+package sim;
+
+import model.Species;
+import world.World;
+
+/** Critério de paragem para {@link StepEngine#stepN}; verificado antes de cada passo. */
+@FunctionalInterface
+public interface StopCondition {
+
+    boolean shouldStop(StepEngine engine);
+
+    /** Nunca pára (corre os n passos). */
+    StopCondition NEVER = e -> false;
+
+    /** Alguma espécie desapareceu (contadores O(1) do mundo). */
+    StopCondition ANY_EXTINCT = e -> {
+        World w = e.getWorld();
+        return w.getPopulation(Species.PLANT) == 0
+                || w.getPopulation(Species.SHEEP) == 0
+                || w.getPopulation(Species.WOLF) == 0;
+    };
+
+    /** Ciclo exato ou populações paradas (ver {@link CycleDetector}). */
+    StopCondition DEGENERATE = StepEngine::isDegenerate;
+
+    default StopCondition or(StopCondition other) {
+        return e -> shouldStop(e) || other.shouldStop(e);
+    }
+}
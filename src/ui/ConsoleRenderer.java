@@ -2,21 +2,41 @@ package ui;
 
 import java.util.List;
 import model.Species;
+import sim.DensityTables;
 import sim.SimulationStats;
+import sim.StepEngine;
 import world.World;
 
 public final class ConsoleRenderer {
 
+    /** Usada quando o mundo não cabe no ecrã ou quando se pediu uma vista geral. */
+    private final ViewportRenderer viewport = new ViewportRenderer();
+
+    /** Motor atual; enquanto a vista geral estiver ligada tem nele as {@link DensityTables} da janela. */
+    private StepEngine engine;
+    private DensityTables density;
+
+    public ViewportRenderer getViewport() { return viewport; }
+
+    /** Passa a seguir {@code engine} (chamar sempre que o motor ou o mundo forem recriados). */
+    public void attach(StepEngine engine) {
+        detachDensity();
+        this.engine = engine;
+    }
+
     public void render(World world, int stepNumber, SimulationStats stats) {
         System.out.println();
         System.out.println("Passo " + stepNumber);
 
-        List<String> lines = world.toTextLines();
+        syncDensity(world, stepNumber);
+        List<String> lines = (viewport.getMode() == ViewportRenderer.Mode.VIEWPORT && viewport.fits(world))
+                ? world.toTextLines()
+                : viewport.renderLines(world, stepNumber);
         for (String line : lines) System.out.println(line);
 
-        int plants = world.countSpecies(Species.PLANT);
-        int sheep  = world.countSpecies(Species.SHEEP);
-        int wolves = world.countSpecies(Species.WOLF);
+        int plants = world.getPopulation(Species.PLANT);
+        int sheep  = world.getPopulation(Species.SHEEP);
+        int wolves = world.getPopulation(Species.WOLF);
 
         System.out.println("Vivos -> Plantas(*): " + plants + " | Ovelhas(O): " + sheep + " | Lobos(W): " + wolves);
 
@@ -37,9 +57,35 @@ public final class ConsoleRenderer {
         System.out.println();
     }
 
+    /**
+     * Só a vista geral consulta as tabelas, e reconstruí-las custa O(mundo) por passo: ficam ligadas
+     * ao motor enquanto o modo não for {@link ViewportRenderer.Mode#VIEWPORT}. Ao ligar (ou depois de
+     * passos sem listener) são reconstruídas no passo que se vai desenhar.
+     */
+    private void syncDensity(World world, int stepNumber) {
+        boolean overview = viewport.getMode() != ViewportRenderer.Mode.VIEWPORT;
+        if (!overview || engine == null || engine.getWorld() != world) {
+            detachDensity();
+            return;
+        }
+        if (density == null) {
+            density = new DensityTables(world);
+            engine.addListener(density);
+            viewport.setDensitySource(density);
+        }
+        if (density.getBuiltStep() != stepNumber) density.rebuild(stepNumber);
+    }
+
+    private void detachDensity() {
+        if (density == null) return;
+        engine.removeListener(density);
+        viewport.setDensitySource(null);
+        density = null;
+    }
+
     public void printExtinctionMessage(World world) {
-        if (world.countSpecies(Species.PLANT) == 0) System.out.println("Extinção: Plantas (*) desapareceram.");
-        if (world.countSpecies(Species.SHEEP) == 0) System.out.println("Extinção: Ovelhas (O) desapareceram.");
-        if (world.countSpecies(Species.WOLF) == 0) System.out.println("Extinção: Lobos (W) desapareceram.");
+        if (world.getPopulation(Species.PLANT) == 0) System.out.println("Extinção: Plantas (*) desapareceram.");
+        if (world.getPopulation(Species.SHEEP) == 0) System.out.println("Extinção: Ovelhas (O) desapareceram.");
+        if (world.getPopulation(Species.WOLF) == 0) System.out.println("Extinção: Lobos (W) desapareceram.");
     }
 }
@@ -0,0 +1,238 @@
+package ui;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+import model.Species;
+import sim.DensityTables;
+import world.World;
+
+/**
+ * Desenha uma janela de {@code cols} x {@code rows} caracteres sobre o mundo: em resolução total
+ * (uma célula por carácter, janela móvel) ou em vista geral, onde cada carácter resume um bloco de
+ * {@code zoom} x {@code zoom} células pela espécie dominante ou pela densidade de ocupação.
+ *
+ * <p>O trabalho é proporcional ao ecrã: a janela lê só as suas células; a vista geral faz uma
+ * consulta por carácter — O(1) com {@link DensityTables} construídas no passo atual, ou pelo índice
+ * de baldes do mundo caso contrário — e as linhas do ecrã são calculadas em paralelo.</p>
+ */
+public final class ViewportRenderer {
+
+    public enum Mode {
+        /** Uma célula por carácter. */
+        VIEWPORT,
+        /** Cada carácter mostra a espécie com mais organismos no bloco. */
+        DOMINANT,
+        /** Cada carácter mostra a fração ocupada do bloco numa escala de {@link #DENSITY_RAMP}. */
+        DENSITY
+    }
+
+    public static final int DEFAULT_COLS = 60;
+    public static final int DEFAULT_ROWS = 30;
+
+    /** Do menos para o mais ocupado; o primeiro é só para blocos vazios. */
+    static final String DENSITY_RAMP = " .:-=+o#%@";
+
+    /** Abaixo deste nº de células resumidas as linhas são calculadas em série. */
+    private static final long PARALLEL_CELLS = 1L << 16;
+
+    /** Em caso de empate ganha a espécie mais rara na cadeia (lobo, depois ovelha). */
+    private static final Species[] DOMINANCE_ORDER = { Species.WOLF, Species.SHEEP, Species.PLANT };
+
+    private final int cols;
+    private final int rows;
+    private final byte[] window;
+    private final char[][] screen;
+
+    private Mode mode = Mode.VIEWPORT;
+    private int zoom = 1;
+    private int originX;
+    private int originY;
+    private DensityTables density;
+
+    public ViewportRenderer() {
+        this(DEFAULT_COLS, DEFAULT_ROWS);
+    }
+
+    public ViewportRenderer(int cols, int rows) {
+        if (cols <= 0 || rows <= 0) throw new IllegalArgumentException("Ecrã inválido: " + cols + "x" + rows);
+        this.cols = cols;
+        this.rows = rows;
+        this.window = new byte[cols * rows];
+        this.screen = new char[rows][cols];
+    }
+
+    // -------------------- NAVEGAÇÃO --------------------
+
+    public int getCols() { return cols; }
+    public int getRows() { return rows; }
+    public Mode getMode() { return mode; }
+    public int getZoom() { return zoom; }
+    public int getOriginX() { return originX; }
+    public int getOriginY() { return originY; }
+
+    /** O mundo cabe inteiro no ecrã em resolução total? */
+    public boolean fits(World world) {
+        return world.getWidth() <= cols && world.getHeight() <= rows;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = Objects.requireNonNull(mode);
+    }
+
+    /** Células por carácter na vista geral (ignorado em {@link Mode#VIEWPORT}). */
+    public void setZoom(int zoom) {
+        if (zoom <= 0) throw new IllegalArgumentException("Zoom inválido: " + zoom);
+        this.zoom = zoom;
+    }
+
+    /** Menor zoom com que o mundo inteiro cabe no ecrã (acima disto só se encolhe a moldura). */
+    public int fitZoom(World world) {
+        int zx = ceilDiv(world.getWidth(), cols);
+        int zy = ceilDiv(world.getHeight(), rows);
+        return Math.max(1, Math.max(zx, zy));
+    }
+
+    /** Passa para {@link #fitZoom}; a origem volta ao canto. */
+    public void zoomToFit(World world) {
+        zoom = fitZoom(world);
+        originX = 0;
+        originY = 0;
+    }
+
+    /** Desloca a origem em células do mundo (é cortada à grelha no desenho). */
+    public void moveBy(int dx, int dy) {
+        originX += dx;
+        originY += dy;
+    }
+
+    public void moveTo(int x, int y) {
+        originX = x;
+        originY = y;
+    }
+
+    /** Põe a célula (x, y) no meio do ecrã, à escala atual. */
+    public void centerOn(int x, int y) {
+        int scale = (mode == Mode.VIEWPORT) ? 1 : zoom;
+        originX = x - (cols * scale) / 2;
+        originY = y - (rows * scale) / 2;
+    }
+
+    /**
+     * Fonte O(1) por bloco para a vista geral; só é usada quando foi construída no passo que se
+     * está a desenhar. Com {@code null} volta-se ao índice de baldes do mundo.
+     */
+    public void setDensitySource(DensityTables density) {
+        this.density = density;
+    }
+
+    // -------------------- DESENHO --------------------
+
+    /** Linhas prontas a imprimir (moldura, grelha e uma linha de legenda com a posição). */
+    public List<String> renderLines(World world, int stepNumber) {
+        int scale = (mode == Mode.VIEWPORT) ? 1 : zoom;
+        int shownW = Math.min(cols, ceilDiv(world.getWidth(), scale));
+        int shownH = Math.min(rows, ceilDiv(world.getHeight(), scale));
+        originX = clamp(originX, world.getWidth() - shownW * scale);
+        originY = clamp(originY, world.getHeight() - shownH * scale);
+
+        if (mode == Mode.VIEWPORT) {
+            fillViewport(world, shownW, shownH);
+        } else {
+            fillOverview(world, stepNumber, shownW, shownH);
+        }
+
+        List<String> lines = new ArrayList<>(shownH + 3);
+        String border = "+" + "-".repeat(shownW * 2 + 1) + "+";
+        lines.add(border);
+        StringBuilder sb = new StringBuilder(shownW * 2 + 2);
+        for (int y = 0; y < shownH; y++) {
+            sb.setLength(0);
+            sb.append('|');
+            for (int x = 0; x < shownW; x++) {
+                sb.append(screen[y][x]);
+                if (x < shownW - 1) sb.append(' ');
+            }
+            sb.append('|');
+            lines.add(sb.toString());
+        }
+        lines.add(border);
+        lines.add(describe(world, shownW * scale, shownH * scale));
+        return Collections.unmodifiableList(lines);
+    }
+
+    private void fillViewport(World world, int w, int h) {
+        world.copySpeciesCodes(window, originX, originY, w, h);
+        Species[] species = Species.values();
+        int i = 0;
+        for (int y = 0; y < h; y++) {
+            char[] line = screen[y];
+            for (int x = 0; x < w; x++) {
+                int code = window[i++];
+                line[x] = (code == 0) ? '.' : species[code - 1].symbol();
+            }
+        }
+    }
+
+    private void fillOverview(World world, int stepNumber, int w, int h) {
+        DensityTables tables = (density != null && density.getBuiltStep() == stepNumber) ? density : null;
+        IntStream lines = IntStream.range(0, h);
+        if ((long) w * h * zoom * zoom >= PARALLEL_CELLS) lines = lines.parallel();
+        lines.forEach(y -> fillOverviewRow(world, tables, y, w));
+    }
+
+    private void fillOverviewRow(World world, DensityTables tables, int row, int w) {
+        char[] line = screen[row];
+        int y0 = originY + row * zoom;
+        int y1 = Math.min(world.getHeight(), y0 + zoom) - 1;
+        for (int col = 0; col < w; col++) {
+            int x0 = originX + col * zoom;
+            int x1 = Math.min(world.getWidth(), x0 + zoom) - 1;
+
+            Species best = null;
+            int bestCount = 0;
+            int occupied = 0;
+            for (Species s : DOMINANCE_ORDER) {
+                int c = (tables != null) ? tables.count(s, x0, y0, x1, y1) : world.countInRect(s, x0, y0, x1, y1);
+                occupied += c;
+                if (c > bestCount) {
+                    best = s;
+                    bestCount = c;
+                }
+            }
+
+            if (mode == Mode.DOMINANT) {
+                line[col] = (best == null) ? '.' : best.symbol();
+            } else {
+                long area = (long) (x1 - x0 + 1) * (y1 - y0 + 1);
+                line[col] = densityGlyph(occupied, area);
+            }
+        }
+    }
+
+    /** Vazio só para blocos sem ninguém; qualquer ocupação aparece pelo menos com o 2.º símbolo. */
+    static char densityGlyph(long occupied, long area) {
+        if (occupied <= 0 || area <= 0) return DENSITY_RAMP.charAt(0);
+        int steps = DENSITY_RAMP.length() - 1;
+        int k = (int) Math.min(steps, 1 + (occupied * (steps - 1)) / area);
+        return DENSITY_RAMP.charAt(k);
+    }
+
+    private String describe(World world, int spanX, int spanY) {
+        int x1 = Math.min(world.getWidth(), originX + spanX) - 1;
+        int y1 = Math.min(world.getHeight(), originY + spanY) - 1;
+        String view = (mode == Mode.VIEWPORT) ? "janela 1:1" : "vista " + mode.name().toLowerCase() + " 1:" + zoom;
+        return view + " | x=" + originX + ".." + x1 + " y=" + originY + ".." + y1
+                + " de " + world.getWidth() + "x" + world.getHeight();
+    }
+
+    private static int ceilDiv(int a, int b) {
+        return (a + b - 1) / b;
+    }
+
+    private static int clamp(int v, int max) {
+        return Math.max(0, Math.min(v, Math.max(0, max)));
+    }
+}
@@ -0,0 +1,134 @@
+package world;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import model.Organism;
+import model.Position;
+import model.Species;
+
+/**
+ * Pools de reciclagem de organismos, um por espécie, ligados a um {@link World}
+ * ({@link World#enableRecycling}). Os organismos retirados do mundo (mortos, comidos, pisados) ficam
+ * retidos até {@link World#releaseRetired()} — no fim do passo, quando já nenhuma lista do motor os
+ * referencia — e só então passam a estar disponíveis; {@link World#newOffspring} e
+ * {@link World#newOrganism} reutilizam-nos como crias e imigrantes em vez de alocar.
+ *
+ * <p>Ganha-se em alocação e em tempo de recolha da geração jovem, não necessariamente em
+ * passos/s: os reutilizados já estão na geração velha e recebem posições novas (barreiras de
+ * escrita entre gerações, pior localidade). Ver {@code bench.OrganismPoolBench}.</p>
+ *
+ * <p>Em modo de depuração ({@code -Dsim.poolDebug=true} ou o construtor), o mundo recusa qualquer
+ * operação sobre um organismo que esteja no pool e confirma, ao libertar, que nenhum retido continua
+ * na grelha; fora dele, a posição nula de um organismo no pool já faz falhar cedo a maior parte dos
+ * usos indevidos.</p>
+ */
+public final class OrganismPool {
+
+    public static final String DEBUG_PROPERTY = "sim.poolDebug";
+
+    /** Máximo de organismos livres guardados por espécie (o resto fica para o GC). */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private final boolean debug;
+    private final int capacity;
+    private final Organism[][] free;
+    private final int[] freeCount;
+    private final List<Organism> retired = new ArrayList<>();
+
+    private long reused;
+    private long allocated;
+
+    public OrganismPool() {
+        this(DEFAULT_CAPACITY, Boolean.getBoolean(DEBUG_PROPERTY));
+    }
+
+    public OrganismPool(int capacityPerSpecies, boolean debug) {
+        if (capacityPerSpecies <= 0) throw new IllegalArgumentException("Capacidade inválida: " + capacityPerSpecies);
+        this.capacity = capacityPerSpecies;
+        this.debug = debug;
+        int species = Species.values().length;
+        this.free = new Organism[species][];
+        this.freeCount = new int[species];
+        for (int i = 0; i < species; i++) free[i] = new Organism[Math.min(capacity, 1024)];
+    }
+
+    public boolean isDebug() { return debug; }
+
+    /** Organismos novos (crias e imigrantes) servidos por reutilização. */
+    public long getReused() { return reused; }
+
+    /** Organismos novos que tiveram de ser alocados (pool vazio). */
+    public long getAllocated() { return allocated; }
+
+    /** Livres (prontos a reutilizar) da espécie. */
+    public int getFreeCount(Species s) { return freeCount[s.ordinal()]; }
+
+    /** Retidos à espera do fim do passo. */
+    public int getRetiredCount() { return retired.size(); }
+
+    public String toTextLine() {
+        long total = reused + allocated;
+        return "reused=" + reused + " allocated=" + allocated
+                + String.format(Locale.ROOT, " reuseRatio=%.3f", total == 0 ? 0.0 : reused / (double) total);
+    }
+
+    // -------------------- USO PELO MUNDO --------------------
+
+    void retire(Organism o) {
+        retired.add(o);
+    }
+
+    List<Organism> retired() {
+        return retired;
+    }
+
+    /** Passa um retido a livre (ou larga-o, se o pool da espécie estiver cheio). */
+    void free(Organism o) {
+        int sp = o.getSpecies().ordinal();
+        int n = freeCount[sp];
+        if (n == capacity) return;
+        Organism[] stack = free[sp];
+        if (n == stack.length) {
+            stack = Arrays.copyOf(stack, Math.min(capacity, n * 2));
+            free[sp] = stack;
+        }
+        o.enterPool();
+        stack[n] = o;
+        freeCount[sp] = n + 1;
+    }
+
+    /** Cria de {@code parent} em {@code pos}: reutilizado se houver, senão {@link Organism#createOffspring}. */
+    Organism offspring(Organism parent, Position pos) {
+        Organism o = take(parent.getSpecies(), pos);
+        return (o != null) ? o : parent.createOffspring(pos);
+    }
+
+    /** Organismo de {@code species} em {@code pos} sem progenitor (ex.: imigrante). */
+    Organism obtain(Species species, Position pos) {
+        Organism o = take(species, pos);
+        return (o != null) ? o : World.create(species, pos);
+    }
+
+    /** Reutiliza um livre da espécie, ou devolve {@code null} (e conta a alocação) se não houver. */
+    private Organism take(Species species, Position pos) {
+        int sp = species.ordinal();
+        int n = freeCount[sp];
+        if (n == 0) {
+            allocated++;
+            return null;
+        }
+        Organism o = free[sp][--n];
+        free[sp][n] = null;
+        freeCount[sp] = n;
+        o.leavePool(pos);
+        reused++;
+        return o;
+    }
+
+    /** Esquece os retidos sem os reutilizar (o mundo foi limpo e quem os tinha pode ainda usá-los). */
+    void dropRetired() {
+        retired.clear();
+    }
+}
@@ -1,31 +1,107 @@
 package world;
 
 import model.*;
+import rng.BufferedRandom;
+import rng.RandomStreams;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
-import java.util.Random;
+import java.util.function.Predicate;
+import java.util.random.RandomGenerator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public final class World implements WorldView {
 
+    /** Células por bloco de linhas na inicialização; com um só bloco corre em série. */
+    private static final int INIT_CHUNK_CELLS = 1 << 16;
+
+    /** Gerador de cada bloco na inicialização. */
+    private static final String INIT_STREAMS = RandomStreams.BUFFERED_PREFIX + "SplittableRandom";
+
+    /** Abaixo desta ocupação total usa-se amostragem geométrica em vez de um sorteio por célula. */
+    private static final double SPARSE_THRESHOLD = 0.25;
+
+    /** Largura (em passos de idade) de cada faixa etária no hash de estado. */
+    private static final int AGE_BUCKET_SHIFT = 3;
+    private static final long ZOBRIST_SEED = 0x5DEECE66DL;
+
+    /** Lado (log2) dos baldes do índice espacial: 8x8 células. */
+    private static final int BUCKET_SHIFT = 3;
+    private static final int BUCKET_SIZE = 1 << BUCKET_SHIFT;
+
+    /** Célula da moldura: nunca está no registo nem é devolvida por {@link #getAt}. */
+    private static final Organism WALL = new Organism(null, 0) {
+        @Override
+        public Species getSpecies() { throw new IllegalStateException("Célula de moldura."); }
+
+        @Override
+        public Organism createOffspring(Position pos) { throw new IllegalStateException("Célula de moldura."); }
+    };
+
+    /** Máximo de blocos por lado para a ordem Morton (15 bits por coordenada: chaves sem sinal). */
+    private static final int MORTON_MAX_SIDE = 1 << 15;
+
     private final int width;
     private final int height;
-    private final Organism[][] grid; // [y][x]
+    // grelha plana com moldura de uma célula (WALL): índice (y+1)*stride + (x+1); os vizinhos N/S/E/O
+    // são deltas constantes e nunca saem do array, por isso os ciclos quentes não testam as bordas
+    private final int stride;
+    private final Organism[] cells;
+    private final int[] neighbourDelta;
     private final List<Organism> organisms;
-    private final Random rng;
-
-    public World(int width, int height, Random rng) {
+    private final int[] population = new int[Species.values().length]; // por ordinal
+    private final RandomGenerator rng;
+
+    // Índice espacial: nº de organismos por [espécie][balde]; os baldes vazios saltam-se nas pesquisas
+    private final int bucketsX;
+    private final int bucketsY;
+    private final int[][] bucketCounts;
+    private int[] mortonRank;   // ordem Morton dos blocos, calculada na 1.ª reordenação
+
+    // Mutação adiada (fases do motor): as remoções deixam a entrada na lista como lápide e os
+    // nascimentos esperam em pending; commitPhase() compacta e acrescenta tudo de uma vez.
+    // Invariante: um organismo está registado se e só se ocupa a célula da sua posição.
+    private boolean deferring;
+    private int tombstones;
+    private final List<Organism> pending = new ArrayList<>();
+
+    // Índice de células vazias (ligado no primeiro uso): vetor denso com as células livres
+    // (y * width + x) e, por célula, a sua posição nele (-1 se ocupada); trocas com o último elemento
+    private int[] emptyCells;   // null = desligado
+    private int[] emptySlot;
+    private int emptyCount;
+
+    // Reciclagem opcional: retirados ficam no pool e voltam como crias (null = sempre new)
+    private OrganismPool pool;
+
+    // Hash Zobrist incremental de (célula, espécie, faixa etária); XOR de uma chave por organismo
+    private long stateHash;
+
+    public World(int width, int height, RandomGenerator rng) {
         if (width <= 0 || height <= 0) throw new IllegalArgumentException("Dimensões inválidas.");
         this.width = width;
         this.height = height;
-        this.grid = new Organism[height][width];
+        this.stride = width + 2;
+        this.cells = new Organism[stride * (height + 2)];
+        Arrays.fill(cells, 0, stride, WALL);
+        Arrays.fill(cells, cells.length - stride, cells.length, WALL);
+        for (int y = 0; y < height; y++) {
+            cells[index(0, y) - 1] = WALL;
+            cells[index(width - 1, y) + 1] = WALL;
+        }
+        this.neighbourDelta = new int[] {-stride, stride, 1, -1};   // N, S, E, O (ordem de getAdjacent4)
         this.organisms = new ArrayList<>();
         this.rng = Objects.requireNonNull(rng);
+        this.bucketsX = (width + BUCKET_SIZE - 1) >> BUCKET_SHIFT;
+        this.bucketsY = (height + BUCKET_SIZE - 1) >> BUCKET_SHIFT;
+        this.bucketCounts = new int[Species.values().length][bucketsX * bucketsY];
     }
 
-    public static World fromConfig(WorldConfig config, Random rng) {
+    public static World fromConfig(WorldConfig config, RandomGenerator rng) {
         World w = new World(config.getWidth(), config.getHeight(), rng);
         w.initializeRandom(config);
         return w;
@@ -45,7 +121,45 @@ public final class World implements WorldView {
     @Override
     public Organism getAt(Position p) {
         if (!isInside(p)) return null;
-        return grid[p.y()][p.x()];
+        return cells[index(p)];
+    }
+
+    private int index(int x, int y) {
+        return (y + 1) * stride + x + 1;
+    }
+
+    private int index(Position p) {
+        return index(p.x(), p.y());
+    }
+
+    private Position positionOf(int index) {
+        return new Position(index % stride - 1, index / stride - 1);
+    }
+
+    /**
+     * Versão sem testes de borda do caso geral de {@link WorldView}: candidatos pelos deltas N/S/E/O
+     * (as paredes da moldura ficam de fora), o mesmo baralho e a mesma escolha, sem listas nem posições
+     * intermédias.
+     */
+    @Override
+    public Position randomAdjacent(Position p, RandomGenerator rng, Predicate<Organism> accept) {
+        if (!isInside(p)) return null;
+        int c = index(p);
+        int[] cand = new int[4];
+        int n = 0;
+        for (int d : neighbourDelta) {
+            if (cells[c + d] != WALL) cand[n++] = c + d;
+        }
+        for (int i = n; i > 1; i--) {
+            int j = rng.nextInt(i);
+            int t = cand[i - 1];
+            cand[i - 1] = cand[j];
+            cand[j] = t;
+        }
+        for (int k = 0; k < n; k++) {
+            if (accept.test(cells[cand[k]])) return positionOf(cand[k]);
+        }
+        return null;
     }
 
     @Override
@@ -67,66 +181,308 @@ public final class World implements WorldView {
         return res;
     }
 
+    // -------------------- PESQUISAS POR RAIO --------------------
+
+    /**
+     * Organismo mais próximo da espécie (distância de Manhattan, no máximo {@code radius}; exclui o centro).
+     * Conta o que está na grelha; entre passos e durante o movimento são todos organismos vivos.
+     * Perto do centro procura anel a anel célula a célula (barato quando a espécie é densa); para lá
+     * disso percorre anéis de baldes do índice espacial, saltando os vazios. O custo depende do raio
+     * e da densidade local, não do tamanho do mundo.
+     */
+    @Override
+    public Position findNearest(Position from, Species s, int radius) {
+        if (!isInside(from) || radius < 0) return null;
+        int fx = from.x();
+        int fy = from.y();
+
+        // 1) anéis de Manhattan até BUCKET_SIZE: o primeiro anel com um acerto é o mais próximo
+        int spiral = Math.min(radius, BUCKET_SIZE);
+        for (int d = 1; d <= spiral; d++) {
+            for (int i = 0; i < d; i++) {
+                if (isSpeciesAt(fx + d - i, fy + i, s)) return new Position(fx + d - i, fy + i);
+                if (isSpeciesAt(fx - i, fy + d - i, s)) return new Position(fx - i, fy + d - i);
+                if (isSpeciesAt(fx - d + i, fy - i, s)) return new Position(fx - d + i, fy - i);
+                if (isSpeciesAt(fx + i, fy - d + i, s)) return new Position(fx + i, fy - d + i);
+            }
+        }
+        if (radius <= spiral) return null;
+
+        // 2) anéis de baldes; tudo a distância <= spiral já se sabe que não tem a espécie
+        int[] counts = bucketCounts[s.ordinal()];
+        int bx0 = fx >> BUCKET_SHIFT;
+        int by0 = fy >> BUCKET_SHIFT;
+        int maxRing = (radius >> BUCKET_SHIFT) + 1;
+
+        int best = radius + 1;
+        int bestX = -1;
+        int bestY = -1;
+
+        for (int k = 0; k <= maxRing; k++) {
+            for (int by = by0 - k; by <= by0 + k; by++) {
+                if (by < 0 || by >= bucketsY) continue;
+                boolean edgeRow = by == by0 - k || by == by0 + k;
+                int step = edgeRow ? 1 : 2 * k; // no meio do anel só as duas pontas
+                for (int bx = bx0 - k; bx <= bx0 + k; bx += step) {
+                    if (bx < 0 || bx >= bucketsX) continue;
+                    if (counts[by * bucketsX + bx] == 0) continue;
+
+                    int x0 = bx << BUCKET_SHIFT, x1 = Math.min(width, x0 + BUCKET_SIZE);
+                    int y0 = by << BUCKET_SHIFT, y1 = Math.min(height, y0 + BUCKET_SIZE);
+                    for (int y = y0; y < y1; y++) {
+                        int base = index(0, y);
+                        for (int x = x0; x < x1; x++) {
+                            Organism o = cells[base + x];
+                            if (o == null || o.getSpecies() != s) continue;
+                            int d = Math.abs(x - fx) + Math.abs(y - fy);
+                            if (d > 0 && d < best) {
+                                best = d;
+                                bestX = x;
+                                bestY = y;
+                            }
+                        }
+                    }
+                }
+            }
+            // o anel k+1 está a pelo menos k*BUCKET_SIZE + 1 células
+            if (best <= k * BUCKET_SIZE) break;
+        }
+        return bestX < 0 ? null : new Position(bestX, bestY);
+    }
+
+    private boolean isSpeciesAt(int x, int y, Species s) {
+        if (x < 0 || x >= width || y < 0 || y >= height) return false;
+        Organism o = cells[index(x, y)];
+        return o != null && o.getSpecies() == s;
+    }
+
+    /** Nº de organismos da espécie na grelha a distância de Manhattan <= {@code radius} (exclui o centro). */
+    @Override
+    public int countWithin(Position center, Species s, int radius) {
+        if (!isInside(center) || radius < 0) return 0;
+        int[] counts = bucketCounts[s.ordinal()];
+        int cx = center.x();
+        int cy = center.y();
+
+        int bxMin = Math.max(0, cx - radius) >> BUCKET_SHIFT;
+        int bxMax = Math.min(width - 1, cx + radius) >> BUCKET_SHIFT;
+        int byMin = Math.max(0, cy - radius) >> BUCKET_SHIFT;
+        int byMax = Math.min(height - 1, cy + radius) >> BUCKET_SHIFT;
+
+        int total = 0;
+        for (int by = byMin; by <= byMax; by++) {
+            for (int bx = bxMin; bx <= bxMax; bx++) {
+                int c = counts[by * bucketsX + bx];
+                if (c == 0) continue;
+
+                int x0 = bx << BUCKET_SHIFT, x1 = Math.min(width, x0 + BUCKET_SIZE) - 1;
+                int y0 = by << BUCKET_SHIFT, y1 = Math.min(height, y0 + BUCKET_SIZE) - 1;
+                int far = Math.max(Math.abs(x0 - cx), Math.abs(x1 - cx)) + Math.max(Math.abs(y0 - cy), Math.abs(y1 - cy));
+                boolean hasCenter = cx >= x0 && cx <= x1 && cy >= y0 && cy <= y1;
+
+                if (far <= radius && !hasCenter) {
+                    total += c; // balde inteiro dentro do losango
+                    continue;
+                }
+                for (int y = y0; y <= y1; y++) {
+                    int base = index(0, y);
+                    int dy = Math.abs(y - cy);
+                    for (int x = x0; x <= x1; x++) {
+                        Organism o = cells[base + x];
+                        if (o == null || o.getSpecies() != s) continue;
+                        int d = Math.abs(x - cx) + dy;
+                        if (d > 0 && d <= radius) total++;
+                    }
+                }
+            }
+        }
+        return total;
+    }
+
     public void place(Organism o, Position pos) {
         Objects.requireNonNull(o);
         Objects.requireNonNull(pos);
+        checkNotPooled(o);
 
         if (!isInside(pos)) throw new IllegalArgumentException("Fora da grelha: " + pos);
-        if (grid[pos.y()][pos.x()] != null) throw new IllegalStateException("Célula ocupada: " + pos);
+        if (cells[index(pos)] != null) throw new IllegalStateException("Célula ocupada: " + pos);
 
         o.setPosition(pos);
-        grid[pos.y()][pos.x()] = o;
-        organisms.add(o);
+        cells[index(pos)] = o;
+        cellEntered(pos, o);
+        if (deferring) pending.add(o);
+        else organisms.add(o);
+        population[o.getSpecies().ordinal()]++;
     }
 
     public void moveToEmpty(Organism o, Position newPos) {
         Objects.requireNonNull(o);
         Objects.requireNonNull(newPos);
+        checkNotPooled(o);
 
         if (!isInside(newPos)) throw new IllegalArgumentException("Destino fora: " + newPos);
-        if (grid[newPos.y()][newPos.x()] != null) throw new IllegalStateException("Destino não vazio: " + newPos);
+        if (cells[index(newPos)] != null) throw new IllegalStateException("Destino não vazio: " + newPos);
 
         Position old = o.getPosition();
-        grid[old.y()][old.x()] = null;
+        cells[index(old)] = null;
+        cellLeft(old, o);
 
         o.setPosition(newPos);
-        grid[newPos.y()][newPos.x()] = o;
+        cells[index(newPos)] = o;
+        cellEntered(newPos, o);
     }
 
     /** Move para célula vazia ou ocupada; se ocupada remove e devolve o ocupante. */
     public Organism moveInto(Organism mover, Position newPos) {
         Objects.requireNonNull(mover);
         Objects.requireNonNull(newPos);
+        checkNotPooled(mover);
 
         if (!isInside(newPos)) throw new IllegalArgumentException("Destino fora: " + newPos);
 
         Position old = mover.getPosition();
         if (old.equals(newPos)) return null;
 
-        Organism occupant = grid[newPos.y()][newPos.x()];
+        Organism occupant = cells[index(newPos)];
         if (occupant != null) {
-            grid[newPos.y()][newPos.x()] = null;
-            organisms.remove(occupant);
+            cells[index(newPos)] = null;
+            cellLeft(newPos, occupant);
+            unregister(occupant);
         }
 
-        if (grid[old.y()][old.x()] != mover) {
+        if (cells[index(old)] != mover) {
             throw new IllegalStateException("Inconsistência: mover não está na origem.");
         }
 
-        grid[old.y()][old.x()] = null;
+        cells[index(old)] = null;
+        cellLeft(old, mover);
         mover.setPosition(newPos);
-        grid[newPos.y()][newPos.x()] = mover;
+        cells[index(newPos)] = mover;
+        cellEntered(newPos, mover);
 
         return occupant;
     }
 
     public void remove(Organism o) {
         if (o == null) return;
+        checkNotPooled(o);
+        Position p = o.getPosition();
+        if (isInside(p) && cells[index(p)] == o) {
+            cells[index(p)] = null;
+            cellLeft(p, o);
+            unregister(o);
+        }
+    }
+
+    /** Já saiu da grelha: tira-o da lista (ou deixa a lápide, dentro de uma fase). */
+    private void unregister(Organism o) {
+        population[o.getSpecies().ordinal()]--;
+        if (pool != null) pool.retire(o);
+        if (deferring) tombstones++;
+        else organisms.remove(o);
+    }
+
+    // -------------------- MUTAÇÃO ADIADA --------------------
+
+    /**
+     * Abre uma fase: até {@link #commitPhase()}, {@link #remove} e {@link #moveInto} deixam lápides na
+     * lista em vez de a percorrer, e {@link #place} guarda os nascimentos à parte. A grelha, o índice
+     * espacial, o hash e os contadores de população continuam exatos; só a lista de organismos fica
+     * como estava no último commit (com os retirados ainda lá, e sem os novos).
+     * Um organismo retirado não deve voltar a ser colocado na mesma fase.
+     */
+    public void beginPhase() {
+        if (deferring) throw new IllegalStateException("Já há uma fase aberta.");
+        deferring = true;
+    }
+
+    /**
+     * Fecha a fase: uma passagem compacta as lápides (mantendo a ordem dos restantes) e os nascimentos
+     * entram no fim, pela ordem em que foram colocados — a mesma lista que as mutações imediatas dariam.
+     */
+    public void commitPhase() {
+        if (!deferring) throw new IllegalStateException("Nenhuma fase aberta.");
+        deferring = false;
+        if (tombstones > 0) {
+            organisms.removeIf(o -> cells[index(o.getPosition())] != o);
+            pending.removeIf(o -> cells[index(o.getPosition())] != o);
+            tombstones = 0;
+        }
+        organisms.addAll(pending);
+        pending.clear();
+    }
+
+    public boolean isPhaseOpen() { return deferring; }
+
+    private void requireNoPhase(String operation) {
+        if (deferring) throw new IllegalStateException(operation + " com uma fase aberta.");
+    }
+
+    /** Envelhece um passo ({@link Organism#onStepStart()}) mantendo o hash de estado em dia. */
+    public void advanceAge(Organism o) {
+        checkNotPooled(o);
+        int before = ageBucket(o.getAge());
+        o.onStepStart();
+        int after = ageBucket(o.getAge());
+        if (before == after) return;
+
         Position p = o.getPosition();
-        if (isInside(p) && grid[p.y()][p.x()] == o) {
-            grid[p.y()][p.x()] = null;
+        if (cells[index(p)] == o) {
+            int cell = p.y() * width + p.x();
+            int sp = o.getSpecies().ordinal();
+            stateHash ^= zobristKey(cell, sp, before) ^ zobristKey(cell, sp, after);
         }
-        organisms.remove(o);
+    }
+
+    /** Envelhece {@code steps} passos de uma vez (recuperação em lote); pára se o organismo morrer. */
+    public void advanceAge(Organism o, int steps) {
+        checkNotPooled(o);
+        int before = ageBucket(o.getAge());
+        for (int i = 0; i < steps && o.isAlive(); i++) o.onStepStart();
+        int after = ageBucket(o.getAge());
+        if (before == after) return;
+
+        Position p = o.getPosition();
+        if (cells[index(p)] == o) {
+            int cell = p.y() * width + p.x();
+            int sp = o.getSpecies().ordinal();
+            stateHash ^= zobristKey(cell, sp, before) ^ zobristKey(cell, sp, after);
+        }
+    }
+
+    /**
+     * Percorre todos os organismos uma vez, por ordem; os que {@code keep} rejeitar saem da grelha
+     * e da lista, compactada no próprio array (sem cópias nem remoções O(n) uma a uma).
+     * {@code keep} não deve colocar nem remover organismos.
+     */
+    public void sweep(Predicate<Organism> keep) {
+        requireNoPhase("sweep");
+        int n = organisms.size();
+        int w = 0;
+        for (int i = 0; i < n; i++) {
+            Organism o = organisms.get(i);
+            if (keep.test(o)) {
+                organisms.set(w++, o);
+                continue;
+            }
+            Position p = o.getPosition();
+            int c = index(p);
+            if (cells[c] == o) {
+                cells[c] = null;
+                cellLeft(p, o);
+            }
+            population[o.getSpecies().ordinal()]--;
+            if (pool != null) pool.retire(o);
+        }
+        if (w < n) organisms.subList(w, n).clear();
+    }
+
+    /**
+     * Vista só de leitura, sem cópia: não mutar o mundo enquanto se itera (a não ser dentro de uma
+     * fase, ver {@link #beginPhase()}, em que a lista só muda no commit).
+     */
+    public List<Organism> getOrganismsView() {
+        return Collections.unmodifiableList(organisms);
     }
 
     public List<Organism> getOrganismsSnapshot() {
@@ -141,37 +497,480 @@ public final class World implements WorldView {
         return c;
     }
 
+    /** Nº de organismos colocados (vivos ou à espera de limpeza) da espécie; O(1). */
+    public int getPopulation(Species s) {
+        return population[s.ordinal()];
+    }
+
+    // -------------------- INICIALIZAÇÃO EM BLOCO --------------------
+
+    /**
+     * Preenche a grelha em blocos de linhas paralelos, cada um com o seu fluxo de {@link RandomStreams}
+     * (sementes tiradas em série de {@code rng}, por isso o resultado não depende do nº de threads),
+     * lido em blocos pré-gerados ({@link BufferedRandom}: mesma sequência do SplittableRandom).
+     * Registo e contadores são construídos numa só passagem, sem passar por {@link #place}.
+     */
     public void initializeRandom(WorldConfig cfg) {
         clearAll();
 
         double pW = cfg.getWolfProb();
         double pO = cfg.getSheepProb();
-        double pP = cfg.getPlantProb();
+        double pAny = pW + pO + cfg.getPlantProb();
+        if (pAny <= 0.0) return;
 
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                double r = rng.nextDouble();
-                Position pos = new Position(x, y);
+        int rowsPerChunk = Math.max(1, INIT_CHUNK_CELLS / width);
+        int chunks = (height + rowsPerChunk - 1) / rowsPerChunk;
+
+        RandomStreams streams = RandomStreams.seededFrom(rng, INIT_STREAMS, chunks);
+
+        IntStream range = IntStream.range(0, chunks);
+        if (chunks > 1) range = range.parallel();
+
+        // cada bloco escreve só nas suas linhas da grelha; a lista final mantém a ordem por linhas
+        List<List<Organism>> parts = range
+                .mapToObj(i -> fillRows(i * rowsPerChunk, Math.min(height, (i + 1) * rowsPerChunk),
+                        pW, pO, pAny, streams.get(i)))
+                .collect(Collectors.toList());
 
-                if (r < pW) place(new Wolf(pos), pos);
-                else if (r < pW + pO) place(new Sheep(pos), pos);
-                else if (r < pW + pO + pP) place(new Plant(pos), pos);
+        for (List<Organism> part : parts) {
+            for (Organism o : part) {
+                organisms.add(o);
+                population[o.getSpecies().ordinal()]++;
+                cellEntered(o.getPosition(), o);
+            }
+        }
+    }
+
+    private List<Organism> fillRows(int y0, int y1, double pW, double pO, double pAny, RandomGenerator r) {
+        List<Organism> out = new ArrayList<>();
+        int start = y0 * width;
+        int end = y1 * width;
+
+        if (pAny < SPARSE_THRESHOLD) {
+            // amostragem geométrica: salta diretamente as células vazias
+            double logEmpty = Math.log1p(-pAny);
+            int cell = start - 1;
+            while (true) {
+                double skip = Math.floor(Math.log(1.0 - r.nextDouble()) / logEmpty);
+                if (skip >= end - cell - 1) break;
+                cell += 1 + (int) skip;
+                spawnAt(out, cell, r.nextDouble() * pAny, pW, pO);
+            }
+        } else {
+            for (int cell = start; cell < end; cell++) {
+                double u = r.nextDouble();
+                if (u < pAny) spawnAt(out, cell, u, pW, pO);
             }
         }
+        return out;
     }
 
+    /** {@code u} em [0, pAny): escolhe a espécie pelas probabilidades acumuladas. */
+    private void spawnAt(List<Organism> out, int cell, double u, double pW, double pO) {
+        int x = cell % width;
+        int y = cell / width;
+        Position pos = new Position(x, y);
+
+        Organism o = create(u < pW ? Species.WOLF : u < pW + pO ? Species.SHEEP : Species.PLANT, pos);
+        cells[index(x, y)] = o;
+        out.add(o);
+    }
+
+    /** Reset barato: reaproveita a grelha e, se estiver esparsa, só limpa as células ocupadas. */
     public void clearAll() {
+        organisms.addAll(pending); // nascimentos de uma fase por fechar também ocupam células
+        if (organisms.size() < (long) width * height / 4) {
+            for (Organism o : organisms) {
+                Position p = o.getPosition();
+                if (isInside(p) && cells[index(p)] == o) cells[index(p)] = null;
+            }
+        } else {
+            for (int y = 0; y < height; y++) Arrays.fill(cells, index(0, y), index(0, y) + width, null);
+        }
         organisms.clear();
-        for (int y = 0; y < height; y++)
-            for (int x = 0; x < width; x++)
-                grid[y][x] = null;
+        pending.clear();
+        deferring = false;
+        tombstones = 0;
+        Arrays.fill(population, 0);
+        for (int[] counts : bucketCounts) Arrays.fill(counts, 0);
+        stateHash = 0L;
+        if (emptyCells != null) resetEmptyIndex();
+        if (pool != null) pool.dropRetired();
+    }
+
+    // -------------------- RECICLAGEM --------------------
+
+    /**
+     * Liga (ou, com {@code null}, desliga) a reciclagem: daí em diante os organismos retirados ficam
+     * retidos no pool e {@link #newOffspring} reutiliza-os depois de {@link #releaseRetired()}.
+     */
+    public void enableRecycling(OrganismPool pool) {
+        this.pool = pool;
+    }
+
+    public OrganismPool getOrganismPool() { return pool; }
+
+    /** Cria de {@code parent} para {@code pos} (ainda por colocar): do pool se houver, senão nova. */
+    public Organism newOffspring(Organism parent, Position pos) {
+        return (pool == null) ? parent.createOffspring(pos) : pool.offspring(parent, pos);
+    }
+
+    /** Organismo de {@code species} sem progenitor (ex.: imigrante) para {@code pos}, ainda por colocar. */
+    public Organism newOrganism(Species species, Position pos) {
+        return (pool == null) ? create(species, pos) : pool.obtain(species, pos);
+    }
+
+    static Organism create(Species species, Position pos) {
+        return switch (species) {
+            case WOLF -> new Wolf(pos);
+            case SHEEP -> new Sheep(pos);
+            case PLANT -> new Plant(pos);
+        };
+    }
+
+    /**
+     * Fim do passo: os retirados passam a reutilizáveis. Só é seguro quando já ninguém guarda
+     * referências para eles (o motor chama-o depois dos listeners). Em depuração confirma que
+     * nenhum continua na grelha.
+     */
+    public void releaseRetired() {
+        if (pool == null) return;
+        requireNoPhase("Libertação do pool");
+        List<Organism> retired = pool.retired();
+        for (Organism o : retired) {
+            if (pool.isDebug()) {
+                Position p = o.getPosition();
+                if (o.isPooled() || (isInside(p) && cells[index(p)] == o)) {
+                    throw new IllegalStateException("Organismo retirado ainda em uso: " + o.getSpecies() + " em " + p);
+                }
+            }
+            pool.free(o);
+        }
+        retired.clear();
+    }
+
+    private void checkNotPooled(Organism o) {
+        if (pool != null && pool.isDebug() && o.isPooled()) {
+            throw new IllegalStateException("Referência obsoleta a um " + o.getSpecies()
+                    + " reciclado (geração " + o.getGeneration() + ")");
+        }
+    }
+
+    // -------------------- ÍNDICE DE CÉLULAS VAZIAS --------------------
+
+    /**
+     * Liga o índice de células vazias (O(células) uma vez, 8 bytes por célula); daí em diante cada
+     * colocação, remoção e movimento o mantém em O(1). Os sorteios ligam-no sozinhos.
+     */
+    public void enableEmptyCellIndex() {
+        if (emptyCells != null) return;
+        int n = width * height;
+        emptyCells = new int[n];
+        emptySlot = new int[n];
+        emptyCount = 0;
+        for (int y = 0; y < height; y++) {
+            int base = index(0, y);
+            for (int x = 0; x < width; x++) {
+                int c = y * width + x;
+                if (cells[base + x] == null) {
+                    emptySlot[c] = emptyCount;
+                    emptyCells[emptyCount++] = c;
+                } else {
+                    emptySlot[c] = -1;
+                }
+            }
+        }
+    }
+
+    public boolean isEmptyCellIndexEnabled() { return emptyCells != null; }
+
+    /** Nº de células vazias (liga o índice se ainda não estiver ligado). */
+    public int getEmptyCellCount() {
+        enableEmptyCellIndex();
+        return emptyCount;
+    }
+
+    /** Célula vazia uniforme, ou {@code null} se a grelha estiver cheia. O(1). */
+    public Position randomEmptyCell(RandomGenerator rng) {
+        enableEmptyCellIndex();
+        if (emptyCount == 0) return null;
+        int c = emptyCells[rng.nextInt(emptyCount)];
+        return new Position(c % width, c / width);
+    }
+
+    /**
+     * Até {@code k} células vazias distintas, uniformes sem reposição (Fisher-Yates parcial sobre o
+     * índice: O(1) por sorteio). Devolve menos se não houver tantas livres.
+     */
+    public List<Position> sampleEmptyCells(int k, RandomGenerator rng) {
+        if (k < 0) throw new IllegalArgumentException("k deve ser >= 0");
+        enableEmptyCellIndex();
+        int n = Math.min(k, emptyCount);
+        List<Position> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            swapEmpty(i, i + rng.nextInt(emptyCount - i));
+            int c = emptyCells[i];
+            out.add(new Position(c % width, c / width));
+        }
+        return out;
+    }
+
+    private void resetEmptyIndex() {
+        emptyCount = width * height;
+        for (int c = 0; c < emptyCount; c++) {
+            emptyCells[c] = c;
+            emptySlot[c] = c;
+        }
+    }
+
+    private void takeEmpty(int c) {
+        int slot = emptySlot[c];
+        if (slot < 0) return;
+        int last = emptyCells[--emptyCount];
+        emptyCells[slot] = last;
+        emptySlot[last] = slot;
+        emptySlot[c] = -1;
+    }
+
+    private void addEmpty(int c) {
+        if (emptySlot[c] >= 0) return;
+        emptySlot[c] = emptyCount;
+        emptyCells[emptyCount++] = c;
+    }
+
+    private void swapEmpty(int i, int j) {
+        int a = emptyCells[i];
+        int b = emptyCells[j];
+        emptyCells[i] = b;
+        emptyCells[j] = a;
+        emptySlot[b] = i;
+        emptySlot[a] = j;
+    }
+
+    /** Organismo passou a ocupar {@code p}: hash de estado e índice espacial. */
+    private void cellEntered(Position p, Organism o) {
+        stateHash ^= zobristKey(p, o);
+        bucketCounts[o.getSpecies().ordinal()][bucketOf(p.x(), p.y())]++;
+        if (emptyCells != null) takeEmpty(p.y() * width + p.x());
+    }
+
+    private void cellLeft(Position p, Organism o) {
+        stateHash ^= zobristKey(p, o);
+        bucketCounts[o.getSpecies().ordinal()][bucketOf(p.x(), p.y())]--;
+        if (emptyCells != null) addEmpty(p.y() * width + p.x());
+    }
+
+    private int bucketOf(int x, int y) {
+        return (y >> BUCKET_SHIFT) * bucketsX + (x >> BUCKET_SHIFT);
+    }
+
+    // -------------------- ORDEM DE ITERAÇÃO --------------------
+
+    /**
+     * Reordena a lista de organismos pela ordem Z (Morton) dos blocos 8x8 do índice espacial
+     * (dentro de cada bloco mantém-se a ordem atual): organismos vizinhos na grelha ficam perto na
+     * iteração, e as sondagens à volta de cada um tendem a cair em linhas de cache já carregadas.
+     * Ordenação por contagem, O(n + blocos). Muda a ordem em que o motor os visita (e portanto a
+     * dinâmica para a mesma semente).
+     */
+    public void sortByMortonOrder() {
+        requireNoPhase("Reordenação");
+        int[] rank = mortonBucketRank();
+        int n = organisms.size();
+        int[] slot = new int[rank.length + 1];
+        int[] bucket = new int[n];
+        for (int i = 0; i < n; i++) {
+            Position p = organisms.get(i).getPosition();
+            bucket[i] = rank[bucketOf(p.x(), p.y())];
+            slot[bucket[i] + 1]++;
+        }
+        for (int b = 0; b < rank.length; b++) slot[b + 1] += slot[b];
+
+        Organism[] sorted = new Organism[n];
+        for (int i = 0; i < n; i++) sorted[slot[bucket[i]]++] = organisms.get(i);
+        for (int i = 0; i < n; i++) organisms.set(i, sorted[i]);
+    }
+
+    /** Posição de cada bloco (índice de {@link #bucketOf}) na ordem Morton; calculada uma vez. */
+    private int[] mortonBucketRank() {
+        if (mortonRank != null) return mortonRank;
+        if (bucketsX > MORTON_MAX_SIDE || bucketsY > MORTON_MAX_SIDE) {
+            throw new IllegalStateException("Grelha demasiado grande para ordem Morton: " + width + "x" + height);
+        }
+        int buckets = bucketsX * bucketsY;
+        long[] keys = new long[buckets];
+        for (int by = 0; by < bucketsY; by++) {
+            for (int bx = 0; bx < bucketsX; bx++) {
+                int b = by * bucketsX + bx;
+                keys[b] = (mortonCode(bx, by) << 32) | b;   // código < 2^30: chave positiva
+            }
+        }
+        Arrays.sort(keys);
+        int[] rank = new int[buckets];
+        for (int i = 0; i < buckets; i++) rank[(int) keys[i]] = i;
+        mortonRank = rank;
+        return rank;
+    }
+
+    /** Intercala os bits de x (posições pares) e y (ímpares). */
+    static long mortonCode(int x, int y) {
+        return spreadBits(x) | (spreadBits(y) << 1);
+    }
+
+    private static long spreadBits(int v) {
+        long b = v & 0xFFFFL;
+        b = (b | (b << 8)) & 0x00FF00FFL;
+        b = (b | (b << 4)) & 0x0F0F0F0FL;
+        b = (b | (b << 2)) & 0x33333333L;
+        b = (b | (b << 1)) & 0x55555555L;
+        return b;
+    }
+
+    // -------------------- HASH DE ESTADO --------------------
+
+    /** Hash Zobrist do estado da grelha; mundos iguais (célula, espécie, faixa etária) dão o mesmo valor. */
+    public long getStateHash() {
+        return stateHash;
+    }
+
+    private static int ageBucket(int age) {
+        return Math.min(age >> AGE_BUCKET_SHIFT, 63);
+    }
+
+    private long zobristKey(Position p, Organism o) {
+        return zobristKey(p.y() * width + p.x(), o.getSpecies().ordinal(), ageBucket(o.getAge()));
+    }
+
+    /** Chave pseudo-aleatória calculada (splitmix64) em vez de tabelada: não ocupa memória por célula. */
+    private static long zobristKey(int cell, int species, int bucket) {
+        long z = (((long) cell << 10) | ((long) species << 6) | bucket) + ZOBRIST_SEED;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Nº de organismos da espécie no retângulo [x0..x1] x [y0..y1] (inclusive, cortado à grelha).
+     * Baldes inteiramente cobertos contam pelo índice; só os da orla são percorridos célula a célula.
+     */
+    public int countInRect(Species s, int x0, int y0, int x1, int y1) {
+        x0 = Math.max(0, x0);
+        y0 = Math.max(0, y0);
+        x1 = Math.min(width - 1, x1);
+        y1 = Math.min(height - 1, y1);
+        if (x0 > x1 || y0 > y1) return 0;
+        int[] counts = bucketCounts[s.ordinal()];
+
+        int total = 0;
+        for (int by = y0 >> BUCKET_SHIFT; by <= y1 >> BUCKET_SHIFT; by++) {
+            int cy0 = Math.max(y0, by << BUCKET_SHIFT);
+            int cy1 = Math.min(y1, Math.min(height, (by + 1) << BUCKET_SHIFT) - 1);
+            for (int bx = x0 >> BUCKET_SHIFT; bx <= x1 >> BUCKET_SHIFT; bx++) {
+                int c = counts[by * bucketsX + bx];
+                if (c == 0) continue;
+
+                int bx0 = bx << BUCKET_SHIFT, bx1 = Math.min(width, bx0 + BUCKET_SIZE) - 1;
+                int cx0 = Math.max(x0, bx0), cx1 = Math.min(x1, bx1);
+                if (cx0 == bx0 && cx1 == bx1 && cy0 == (by << BUCKET_SHIFT)
+                        && cy1 == Math.min(height, (by + 1) << BUCKET_SHIFT) - 1) {
+                    total += c; // balde inteiro dentro do retângulo
+                    continue;
+                }
+                for (int y = cy0; y <= cy1; y++) {
+                    int base = index(0, y);
+                    for (int x = cx0; x <= cx1; x++) {
+                        Organism o = cells[base + x];
+                        if (o != null && o.getSpecies() == s) total++;
+                    }
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Copia o estado da grelha para {@code dst} (linha a linha, {@code width * height} bytes):
+     * 0 = vazio, 1 + ordinal da espécie caso contrário. Sem alocações.
+     */
+    public void copySpeciesCodes(byte[] dst) {
+        if (dst.length < width * height) throw new IllegalArgumentException("Buffer pequeno: " + dst.length);
+        int i = 0;
+        for (int y = 0; y < height; y++) {
+            int base = index(0, y);
+            for (int x = 0; x < width; x++) {
+                Organism o = cells[base + x];
+                dst[i++] = (o == null) ? 0 : (byte) (o.getSpecies().ordinal() + 1);
+            }
+        }
+    }
+
+    /**
+     * Como {@link #copySpeciesCodes(byte[])}, preenchendo também {@code ages} com a idade de cada
+     * organismo (0 nas células vazias, saturada em 255). Uma só passagem pela grelha.
+     */
+    public void copyCellState(byte[] codes, byte[] ages) {
+        if (codes.length < width * height || ages.length < width * height) {
+            throw new IllegalArgumentException("Buffer pequeno: " + Math.min(codes.length, ages.length));
+        }
+        int i = 0;
+        for (int y = 0; y < height; y++) {
+            int base = index(0, y);
+            for (int x = 0; x < width; x++, i++) {
+                Organism o = cells[base + x];
+                if (o == null) {
+                    codes[i] = 0;
+                    ages[i] = 0;
+                } else {
+                    codes[i] = (byte) (o.getSpecies().ordinal() + 1);
+                    ages[i] = (byte) Math.min(o.getAge(), 255);
+                }
+            }
+        }
+    }
+
+    /**
+     * Idade exata e energia de cada célula, linha a linha (0 nas vazias; energia 0 nas plantas),
+     * para comparar mundos ao detalhe: o hash de estado só vê a faixa etária e nunca a energia.
+     */
+    public void copyAgesAndEnergy(int[] ages, int[] energies) {
+        if (ages.length < width * height || energies.length < width * height) {
+            throw new IllegalArgumentException("Buffer pequeno: " + Math.min(ages.length, energies.length));
+        }
+        int i = 0;
+        for (int y = 0; y < height; y++) {
+            int base = index(0, y);
+            for (int x = 0; x < width; x++, i++) {
+                Organism o = cells[base + x];
+                ages[i] = (o == null) ? 0 : o.getAge();
+                energies[i] = (o instanceof Animal a) ? a.getEnergy() : 0;
+            }
+        }
+    }
+
+    /**
+     * Copia só a janela [x0, x0 + w) x [y0, y0 + h) para {@code dst} (linha a linha, {@code w * h} bytes),
+     * com os mesmos códigos de {@link #copySpeciesCodes(byte[])}. O custo depende da janela, não do mundo.
+     */
+    public void copySpeciesCodes(byte[] dst, int x0, int y0, int w, int h) {
+        if (w < 0 || h < 0 || x0 < 0 || y0 < 0 || x0 + w > width || y0 + h > height) {
+            throw new IllegalArgumentException("Janela fora da grelha: " + x0 + "," + y0 + " " + w + "x" + h);
+        }
+        if (dst.length < w * h) throw new IllegalArgumentException("Buffer pequeno: " + dst.length);
+        int i = 0;
+        for (int y = y0; y < y0 + h; y++) {
+            int base = index(x0, y);
+            for (int x = 0; x < w; x++) {
+                Organism o = cells[base + x];
+                dst[i++] = (o == null) ? 0 : (byte) (o.getSpecies().ordinal() + 1);
+            }
+        }
     }
 
     public char[][] toCharMatrix() {
         char[][] m = new char[height][width];
         for (int y = 0; y < height; y++) {
             for (int x = 0; x < width; x++) {
-                Organism o = grid[y][x];
+                Organism o = cells[index(x, y)];
                 m[y][x] = (o == null) ? '.' : o.getSymbol();
             }
         }
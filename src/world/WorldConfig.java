@@ -8,17 +8,39 @@ public final class WorldConfig {
     private final double sheepProb;
     private final double plantProb;
 
+    /** Animais imigrantes esperados por passo (Poisson), repartidos entre lobos e ovelhas como wolfProb:sheepProb. */
+    private final double immigrationRate;
+
+    /** Animais repostos de uma vez quando lobos ou ovelhas se extinguem (0 = nunca). */
+    private final int restockCount;
+
     public WorldConfig(int width, int height, double wolfProb, double sheepProb, double plantProb) {
+        this(width, height, wolfProb, sheepProb, plantProb, 0.0);
+    }
+
+    public WorldConfig(int width, int height, double wolfProb, double sheepProb, double plantProb,
+                       double immigrationRate) {
+        this(width, height, wolfProb, sheepProb, plantProb, immigrationRate, 0);
+    }
+
+    public WorldConfig(int width, int height, double wolfProb, double sheepProb, double plantProb,
+                       double immigrationRate, int restockCount) {
         if (width <= 0 || height <= 0) throw new IllegalArgumentException("Dimensões inválidas.");
         if (wolfProb < 0 || sheepProb < 0 || plantProb < 0) throw new IllegalArgumentException("Probabilidades inválidas.");
         if (wolfProb + sheepProb + plantProb > 1.0 + 1e-12) {
             throw new IllegalArgumentException("Soma das probabilidades excede 1.0");
         }
+        if (!(immigrationRate >= 0) || Double.isInfinite(immigrationRate)) {
+            throw new IllegalArgumentException("Taxa de imigração inválida: " + immigrationRate);
+        }
+        if (restockCount < 0) throw new IllegalArgumentException("Reposição inválida: " + restockCount);
         this.width = width;
         this.height = height;
         this.wolfProb = wolfProb;
         this.sheepProb = sheepProb;
         this.plantProb = plantProb;
+        this.immigrationRate = immigrationRate;
+        this.restockCount = restockCount;
     }
 
     public static WorldConfig defaultConfig() {
@@ -30,4 +52,17 @@ public final class WorldConfig {
     public double getWolfProb() { return wolfProb; }
     public double getSheepProb() { return sheepProb; }
     public double getPlantProb() { return plantProb; }
+    public double getImmigrationRate() { return immigrationRate; }
+    public int getRestockCount() { return restockCount; }
+
+    /** Há chegada de animais (por passo ou depois de uma extinção)? */
+    public boolean hasImmigration() {
+        return immigrationRate > 0 || restockCount > 0;
+    }
+
+    /** Fração dos imigrantes que são lobos (metade se a configuração não tiver animais). */
+    public double getImmigrantWolfShare() {
+        double animals = wolfProb + sheepProb;
+        return animals > 0 ? wolfProb / animals : 0.5;
+    }
 }
@@ -2,8 +2,13 @@ package world;
 
 import model.Organism;
 import model.Position;
+import model.Species;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Predicate;
+import java.util.random.RandomGenerator;
+import rng.Permutations;
 
 public interface WorldView {
     int getWidth();
@@ -18,4 +23,23 @@ public interface WorldView {
     }
 
     List<Position> getAdjacent4(Position p);
+
+    /**
+     * Vizinho N/S/E/O ao acaso cujo ocupante {@code accept} aceite (o ocupante é null numa célula vazia),
+     * ou null se nenhum: baralha os vizinhos de {@link #getAdjacent4} e devolve o primeiro aceite.
+     */
+    default Position randomAdjacent(Position p, RandomGenerator rng, Predicate<Organism> accept) {
+        List<Position> adj = new ArrayList<>(getAdjacent4(p));
+        Permutations.shuffle(adj, rng);
+        for (Position q : adj) {
+            if (accept.test(getAt(q))) return q;
+        }
+        return null;
+    }
+
+    /** Posição do organismo da espécie mais próximo a distância de Manhattan <= radius, ou null. */
+    Position findNearest(Position from, Species s, int radius);
+
+    /** Nº de organismos da espécie a distância de Manhattan <= radius (sem contar o centro). */
+    int countWithin(Position center, Species s, int radius);
 }
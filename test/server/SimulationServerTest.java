@@ -0,0 +1,171 @@
+package server;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import sim.Engines;
+import sim.EventBatch;
+import sim.StepListener;
+import world.WorldConfig;
+
+/**
+ * Servidor em localhost (porta 0, um só worker): duas simulações a correr ao mesmo tempo avançam
+ * intercaladas (quando a primeira acaba, a outra já fez pelo menos metade dos passos), e os caminhos
+ * de erro respondem 404/400; um passo síncrono que lança responde 500 e deixa a sessão em FAILED.
+ * Depois, direto no {@link FairScheduler}: uma sessão cujo quantum lança uma exceção fica em FAILED e
+ * o worker continua a servir as outras. Falha com código de saída 1.
+ */
+public final class SimulationServerTest {
+
+    private static final int STEPS = 30;
+    private static final long TIMEOUT_MILLIS = 60_000;
+    private static final Pattern SESSION_LINE = Pattern.compile("id=(\\d+) state=(\\w+) \\S+ step=(\\d+)");
+
+    private static final HttpClient CLIENT = HttpClient.newHttpClient();
+    private static int failures;
+
+    private SimulationServerTest() {}
+
+    public static void main(String[] args) throws Exception {
+        SimulationServer server = new SimulationServer(0, 1);
+        server.start();
+        try {
+            String base = "http://127.0.0.1:" + server.getPort();
+            fairInterleaving(base);
+            errorPaths(base);
+            failingStep(server, base);
+        } finally {
+            server.stop();
+        }
+        failingQuantum();
+
+        if (failures > 0) {
+            System.out.println("FAIL (" + failures + ")");
+            System.exit(1);
+        }
+        System.out.println("OK");
+    }
+
+    private static void fairInterleaving(String base) throws Exception {
+        String sims = base + "/sims?width=150&height=150&wolves=0.04&sheep=0.12&plants=0.5&seed=1";
+        expect(request("POST", sims), 201, "id=1");
+        expect(request("POST", sims), 201, "id=2");
+        expect(request("POST", base + "/sims/1/step?n=2"), 200, "ran=2");
+        expect(request("POST", base + "/sims/1/run?steps=" + STEPS), 200, "state=RUNNING");
+        expect(request("POST", base + "/sims/2/run?steps=" + STEPS), 200, "state=RUNNING");
+
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        int laggingWhenFirstDone = -1;
+        while (System.currentTimeMillis() < deadline) {
+            String list = request("GET", base + "/sims").body();
+            int[] steps = new int[3];
+            int paused = 0;
+            Matcher m = SESSION_LINE.matcher(list);
+            while (m.find()) {
+                steps[Integer.parseInt(m.group(1))] = Integer.parseInt(m.group(3));
+                if (!m.group(2).equals("RUNNING")) paused++;
+            }
+            if (paused > 0 && laggingWhenFirstDone < 0) {
+                laggingWhenFirstDone = Math.min(steps[1] - 2, steps[2]);
+            }
+            if (paused == 2) {
+                check(steps[1] == STEPS + 2 && steps[2] == STEPS, "passos finais " + list);
+                break;
+            }
+            Thread.sleep(5);
+        }
+        System.out.println("fair laggingWhenFirstDone=" + laggingWhenFirstDone + " of " + STEPS);
+        check(laggingWhenFirstDone >= STEPS / 2, "intercalação injusta: " + laggingWhenFirstDone + " de " + STEPS);
+    }
+
+    private static void errorPaths(String base) throws Exception {
+        expect(request("GET", base + "/sims/99"), 404, "inexistente");
+        expect(request("GET", base + "/simsX"), 404, "desconhecido");
+        expect(request("POST", base + "/simsX"), 404, "desconhecido");
+        expect(request("POST", base + "/sims/1/bogus"), 404, "desconhecida");
+        expect(request("GET", base + "/sims/abc"), 400, "inválido");
+        expect(request("POST", base + "/sims/1/step?n=x"), 400, "inválido");
+        expect(request("POST", base + "/sims?width=x"), 400, "inválido");
+    }
+
+    private static void failingStep(SimulationServer server, String base) throws Exception {
+        expect(request("POST", base + "/sims?width=40&height=40&seed=1"), 201, "id=3");
+        server.getSession(3).getEngine().addListener(throwingAt(2));
+        expect(request("POST", base + "/sims/3/step?n=5"), 500, "state=FAILED");
+        expect(request("GET", base + "/sims/3"), 200, "error=falha de teste");
+        expect(request("POST", base + "/sims/3/step?n=1"), 409, "falhou");
+    }
+
+    private static void failingQuantum() throws InterruptedException {
+        FairScheduler scheduler = new FairScheduler(1, 10);
+        try {
+            WorldConfig cfg = new WorldConfig(40, 40, 0.04, 0.12, 0.5);
+            SimulationSession bad = new SimulationSession(1, cfg, 1, Engines.defaultName(), 0);
+            bad.getEngine().addListener(throwingAt(3));
+            if (bad.run(-1)) scheduler.enqueue(bad);
+            check(await(() -> bad.getState() == SimulationSession.State.FAILED), "sessão não passou a FAILED");
+            check(bad.describe().contains("error=falha de teste"), "mensagem em falta: " + bad.describe());
+            try {
+                bad.run(10);
+                check(false, "run aceite numa sessão em FAILED");
+            } catch (IllegalStateException expected) {
+                // 409 no servidor
+            }
+
+            SimulationSession good = new SimulationSession(2, cfg, 1, Engines.defaultName(), 0);
+            if (good.run(10)) scheduler.enqueue(good);
+            check(await(() -> good.getState() != SimulationSession.State.RUNNING), "worker perdido após a falha");
+            check(good.getStepNumber() == 10, "sessão saudável parou no passo " + good.getStepNumber());
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    // -------------------- UTILITÁRIOS --------------------
+
+    /** Listener que lança no fim do passo {@code failStep}. */
+    private static StepListener throwingAt(int failStep) {
+        return new StepListener() {
+            @Override
+            public void onEvents(int step, EventBatch batch) {}
+
+            @Override
+            public void onStepEnd(int step) {
+                if (step == failStep) throw new IllegalStateException("falha de teste no passo " + step);
+            }
+        };
+    }
+
+    private static HttpResponse<String> request(String method, String url) throws IOException, InterruptedException {
+        HttpRequest req = HttpRequest.newBuilder(URI.create(url))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build();
+        return CLIENT.send(req, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void expect(HttpResponse<String> r, int status, String fragment) {
+        check(r.statusCode() == status && r.body().contains(fragment),
+                r.request().method() + " " + r.uri() + ": esperado " + status + " com \"" + fragment
+                        + "\", veio " + r.statusCode() + " " + r.body().trim());
+    }
+
+    private static boolean await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) return false;
+            Thread.sleep(5);
+        }
+        return true;
+    }
+
+    private static void check(boolean ok, String message) {
+        if (ok) return;
+        System.out.println("falhou: " + message);
+        failures++;
+    }
+}
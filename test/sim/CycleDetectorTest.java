@@ -0,0 +1,53 @@
+package sim;
+
+/**
+ * {@link CycleDetector} com sequências sintéticas: uma repetição isolada do hash (animal que volta à
+ * mesma célula e faixa etária) não pode fechar o ciclo; um ciclo verdadeiro de período 5 sim, depois
+ * da confirmação; e populações diferentes cuja chave antiga colidia não contam como paradas.
+ * Falha com código de saída 1.
+ */
+public final class CycleDetectorTest {
+
+    private static int failures;
+
+    private CycleDetectorTest() {}
+
+    public static void main(String[] args) {
+        // repetição isolada: A B C A D E F ... (tudo distinto a seguir)
+        CycleDetector lone = new CycleDetector();
+        long[] start = {11, 22, 33, 11};
+        int step = 0;
+        for (long h : start) lone.observe(++step, h, 100, 10, 5 + step);
+        for (int i = 0; i < 200; i++) lone.observe(++step, 1000 + i, 100, 10, 5 + step);
+        check(lone.getStatus() == CycleDetector.Status.RUNNING, "repetição isolada deu " + lone.getStatus());
+
+        // ciclo verdadeiro de período 5
+        CycleDetector cycle = new CycleDetector();
+        int latchedAt = -1;
+        for (int s = 1; s <= 100 && latchedAt < 0; s++) {
+            if (cycle.observe(s, 7 + s % 5, 100, 10, s) == CycleDetector.Status.CYCLE) latchedAt = s;
+        }
+        check(latchedAt == 6 + cycle.getConfirmSteps(), "ciclo confirmado no passo " + latchedAt);
+        check(cycle.getCycleLength() == 5, "comprimento " + cycle.getCycleLength());
+
+        // (1, 0, 0) e (0, 31, 0) davam a mesma chave ((p * 31 + s) * 31 + w)
+        CycleDetector pops = new CycleDetector(16);
+        for (int s = 1; s <= 100; s++) {
+            if (s % 2 == 0) pops.observe(s, s, 1, 0, 0);
+            else pops.observe(s, s, 0, 31, 0);
+        }
+        check(pops.getStatus() == CycleDetector.Status.RUNNING, "populações alternadas deram " + pops.getStatus());
+
+        if (failures > 0) {
+            System.out.println("FAIL (" + failures + ")");
+            System.exit(1);
+        }
+        System.out.println("OK");
+    }
+
+    private static void check(boolean ok, String message) {
+        if (ok) return;
+        System.out.println("falhou: " + message);
+        failures++;
+    }
+}
@@ -0,0 +1,93 @@
+package sim;
+
+import java.util.Random;
+import model.Species;
+import world.World;
+import world.WorldConfig;
+
+/**
+ * Balanço das estatísticas com imigração ligada: em cada passo, criados (iniciais + nascidos +
+ * imigrados) menos mortos tem de dar a população viva de cada espécie, e a imigração tem de aparecer
+ * nas fotografias e no MBean. Só com reposição ({@link WorldConfig#getRestockCount()}), nenhuma
+ * espécie animal pode acabar um passo a 0. Falha com código de saída 1.
+ */
+public final class ImmigrationStatsTest {
+
+    private static final int SEEDS = 10;
+    private static final int STEPS = 200;
+
+    private ImmigrationStatsTest() {}
+
+    public static void main(String[] args) {
+        int failures = 0;
+        long immigrated = 0;
+        for (long seed = 1; seed <= SEEDS; seed++) {
+            Random rng = new Random(seed);
+            WorldConfig cfg = new WorldConfig(50, 50, 0.04, 0.12, 0.30, 3.0);
+            World world = World.fromConfig(cfg, rng);
+            SimulationEngine engine = new SimulationEngine(world, rng);
+            engine.setImmigration(cfg);
+            SimulationStats stats = engine.getStats();
+
+            for (int i = 0; i < STEPS && failures == 0; i++) {
+                engine.step();
+                failures += check(seed, engine.getStepNumber(), Species.PLANT, world,
+                        stats.getTotalCreatedPlants(), stats.getTotalDiedPlants());
+                failures += check(seed, engine.getStepNumber(), Species.SHEEP, world,
+                        stats.getTotalCreatedSheep(), stats.getTotalDiedSheep());
+                failures += check(seed, engine.getStepNumber(), Species.WOLF, world,
+                        stats.getTotalCreatedWolves(), stats.getTotalDiedWolves());
+            }
+
+            StatsSnapshot snap = stats.getLatestSnapshot();
+            SimulationStatsMonitor monitor = new SimulationStatsMonitor(stats);
+            if (snap.getImmigratedSheep() != stats.getImmigratedSheep()
+                    || monitor.getImmigratedWolves() != stats.getImmigratedWolves()
+                    || !snap.toTextLine().contains(" immigratedSheep=" + snap.getImmigratedSheep())) {
+                System.out.println("seed=" + seed + ": imigração em falta na fotografia ou no MBean");
+                failures++;
+            }
+            immigrated += snap.getTotalImmigrated();
+        }
+        failures += restock();
+        System.out.println("immigrated=" + immigrated + " failures=" + failures);
+        if (immigrated == 0 || failures > 0) {
+            System.out.println("FAIL");
+            System.exit(1);
+        }
+        System.out.println("OK");
+    }
+
+    /** Poucos lobos num mundo pequeno: extinguem-se cedo e têm de voltar no mesmo passo. */
+    private static int restock() {
+        int failures = 0;
+        long restocked = 0;
+        for (long seed = 1; seed <= SEEDS; seed++) {
+            Random rng = new Random(seed);
+            WorldConfig cfg = new WorldConfig(30, 30, 0.005, 0.12, 0.30, 0.0, 5);
+            World world = World.fromConfig(cfg, rng);
+            SimulationEngine engine = new SimulationEngine(world, rng);
+            engine.setImmigration(cfg);
+            for (int i = 0; i < STEPS && failures == 0; i++) {
+                engine.step();
+                if (world.getPopulation(Species.SHEEP) == 0 || world.getPopulation(Species.WOLF) == 0) {
+                    System.out.println("seed=" + seed + " step=" + engine.getStepNumber() + ": espécie animal a 0");
+                    failures++;
+                }
+                failures += check(seed, engine.getStepNumber(), Species.WOLF, world,
+                        engine.getStats().getTotalCreatedWolves(), engine.getStats().getTotalDiedWolves());
+            }
+            restocked += engine.getStats().getLatestSnapshot().getTotalImmigrated();
+        }
+        System.out.println("restocked=" + restocked);
+        return (restocked == 0) ? failures + 1 : failures;
+    }
+
+    private static int check(long seed, int step, Species s, World world, long created, long died) {
+        int alive = world.getPopulation(s);
+        if (created - died == alive) return 0;
+        System.out.println("seed=" + seed + " step=" + step + " " + s + ": criados " + created
+                + " - mortos " + died + " != população " + alive);
+        return 1;
+    }
+}
@@ -0,0 +1,78 @@
+package sim;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import model.Animal;
+import model.Organism;
+import model.Position;
+import model.Sheep;
+import model.Species;
+import model.Wolf;
+import world.World;
+
+/**
+ * Progenitores registados num nascimento por encontro quando o primeiro concorrente morre no mesmo
+ * passo. Grelha 3x3 cheia exceto o centro: as quatro ovelhas ortogonais ao centro só podem ir para lá
+ * (encontro de quatro, a primeira da lista é {@code first}); o lobo no canto só alcança {@code first}
+ * e a ovelha de cima, e come uma delas depois de os encontros estarem reunidos. Em todas as sementes
+ * em que {@code first} é comida e há cria, nem o pai nem o par registados podem ser ela, e ambos têm
+ * de estar vivos. Falha com código de saída 1.
+ */
+public final class LineageParentTest {
+
+    private static final int SEEDS = 2000;
+
+    private LineageParentTest() {}
+
+    public static void main(String[] args) {
+        int hits = 0;
+        int failures = 0;
+        for (long seed = 1; seed <= SEEDS; seed++) {
+            Random rng = new Random(seed);
+            World world = new World(3, 3, rng);
+            Sheep first = place(world, new Sheep(new Position(0, 1)));
+            place(world, new Sheep(new Position(1, 0)));
+            place(world, new Sheep(new Position(2, 1)));
+            place(world, new Sheep(new Position(1, 2)));
+            for (Position p : List.of(new Position(2, 0), new Position(0, 2), new Position(2, 2))) {
+                place(world, new Sheep(p));
+            }
+            place(world, new Wolf(new Position(0, 0)));
+
+            SimulationEngine engine = new SimulationEngine(world, rng);
+            LineageTracker lineage = new LineageTracker(EnumSet.of(Species.SHEEP));
+            engine.setLineageTracker(lineage);
+            int founders = lineage.size();
+            engine.step();
+
+            if (first.isAlive() || lineage.size() == founders) continue;
+            hits++;
+            int child = founders;
+            int parent = lineage.getParent(child);
+            int mate = lineage.getMate(child);
+            if (parent == first.getLineageId() || mate == first.getLineageId()
+                    || parent == Organism.NO_LINEAGE_ID || mate == Organism.NO_LINEAGE_ID
+                    || lineage.getDeathStep(parent) != LineageTracker.ALIVE
+                    || lineage.getDeathStep(mate) != LineageTracker.ALIVE) {
+                System.out.println("seed=" + seed + " pai=" + parent + " par=" + mate
+                        + " primeiro=" + first.getLineageId());
+                failures++;
+            }
+        }
+        System.out.println("scenarios=" + hits + " failures=" + failures);
+        if (hits == 0 || failures > 0) {
+            System.out.println("FAIL");
+            System.exit(1);
+        }
+        System.out.println("OK");
+    }
+
+    /** Adulto com energia de sobra, para que só a predação o tire do encontro. */
+    private static <T extends Animal> T place(World world, T a) {
+        a.restoreAge(10);
+        a.restoreEnergy(30);
+        world.place(a, a.getPosition());
+        return a;
+    }
+}